@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO без Spring-контекста и базы данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+    private Item item;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("Владелец");
+        owner.setEmail("owner@example.com");
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("Арендатор");
+        booker.setEmail("booker@example.com");
+        item = new Item(10L, "Дрель", "Ударная дрель с набором свёрл", true, owner, null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = new Booking(100L, start, start.plusDays(2), item, booker, Booking.BookingStatus.APPROVED, 0L);
+    }
+
+    @Benchmark
+    public ItemResponesDto toItemRespones() {
+        return itemMapper.toItemRespones(item);
+    }
+
+    @Benchmark
+    public BookingResponseDto toBookingResponseDto() {
+        return bookingMapper.toBookingResponseDto(booking);
+    }
+}
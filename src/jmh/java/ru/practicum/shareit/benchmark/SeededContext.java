@@ -0,0 +1,147 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.pointer.BookingPointers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Spring-контекст поверх встроенной H2, заполненной данными реалистичного объёма.
+ * Объёмы задаются системными свойствами {@code bench.users}, {@code bench.itemsPerUser}
+ * и {@code bench.bookingsPerItem} (по умолчанию 10 тыс. пользователей, 100 тыс. вещей, 1 млн бронирований).
+ */
+@State(Scope.Benchmark)
+public class SeededContext {
+    static final String[] WORDS = {
+        "дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "байдарка", "велосипед", "самокат",
+        "гитара", "проектор", "фотоаппарат", "объектив", "штатив", "мангал", "спальник", "рюкзак",
+        "лобзик", "болгарка", "пылесос", "пароочиститель", "домкрат", "компрессор", "удочка", "сноуборд"
+    };
+    private static final int BATCH_SIZE = 10_000;
+    private static final long SEED = 42;
+
+    int users = Integer.getInteger("bench.users", 10_000);
+    int itemsPerUser = Integer.getInteger("bench.itemsPerUser", 10);
+    int bookingsPerItem = Integer.getInteger("bench.bookingsPerItem", 10);
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start(WebApplicationType.NONE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+    }
+
+    /**
+     * Поднимает приложение с дополнительными аргументами командной строки и заполняет базу.
+     */
+    void start(WebApplicationType webApplicationType, String... extraArgs) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType);
+        // Аргументы командной строки перекрывают тестовый application.properties со статистикой Hibernate;
+        // медленными при заполнении базы оказываются пакетные вставки, их лог здесь не нужен
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--shareit.sql.monitor.slow-statement=1m",
+                "--logging.level.root=WARN",
+                "--shareit.search.engine=" + System.getProperty("bench.searchEngine", "trigram")));
+        args.addAll(List.of(extraArgs));
+        context = builder.run(args.toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class));
+        // Указатели на последнее и следующее бронирование в проде заполняет миграция, здесь — перестроение
+        context.getBean(BookingPointers.class).verify(true);
+        // Поисковый индекс строится по ApplicationReadyEvent, который пришёл до заполнения базы
+        context.publishEvent(new ApplicationReadyEvent(builder.application(), new String[0], context, Duration.ZERO));
+    }
+
+    void stop() {
+        context.close();
+    }
+
+    int localServerPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    long items() {
+        return (long) users * itemsPerUser;
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Random random = new Random(SEED);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long userId = 1; userId <= users; userId++) {
+            batch.add(new Object[]{userId, "Пользователь " + userId, "user" + userId + "@example.com"});
+            flushIfFull(jdbc, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", batch);
+        }
+        flush(jdbc, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", batch);
+
+        String itemSql = "INSERT INTO items (id, name, description, available, owner_id) VALUES (?, ?, ?, ?, ?)";
+        for (long itemId = 1; itemId <= items(); itemId++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + itemId;
+            String description = WORDS[random.nextInt(WORDS.length)] + " и " + WORDS[random.nextInt(WORDS.length)];
+            long ownerId = (itemId - 1) / itemsPerUser + 1;
+            batch.add(new Object[]{itemId, name, description, random.nextInt(10) != 0, ownerId});
+            flushIfFull(jdbc, itemSql, batch);
+        }
+        flush(jdbc, itemSql, batch);
+
+        String bookingSql = "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+        Booking.BookingStatus[] statuses = Booking.BookingStatus.values();
+        LocalDateTime origin = LocalDateTime.now().withNano(0).minusDays(bookingsPerItem * 3L / 2);
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= items(); itemId++) {
+            // Бронирования одной вещи идут друг за другом: часть в прошлом, одно текущее, часть в будущем
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = origin.plusDays(3L * i).plusHours(random.nextInt(24));
+                long bookerId = random.nextInt(users) + 1;
+                batch.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                        itemId, bookerId, statuses[random.nextInt(statuses.length)].name()});
+                flushIfFull(jdbc, bookingSql, batch);
+            }
+        }
+        flush(jdbc, bookingSql, batch);
+
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+        // Значение последовательности вещей — верхняя граница блока из 50 id
+        jdbc.execute("ALTER SEQUENCE items_seq RESTART WITH " + (items() + 50));
+        jdbc.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + bookingId);
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> batch) {
+        if (batch.size() == BATCH_SIZE) {
+            flush(jdbc, sql, batch);
+        }
+    }
+
+    private static void flush(JdbcTemplate jdbc, String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути сервисов на заполненной базе: вещи владельца, поиск, бронирования владельца и их счётчики по статусам.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ItemService itemService;
+    private BookingService bookingService;
+    private int users;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        itemService = seeded.bean(ItemService.class);
+        bookingService = seeded.bean(BookingService.class);
+        users = seeded.users;
+    }
+
+    @Benchmark
+    public List<ItemResponesDto> getUserItems() {
+        return itemService.getUserItems(randomUserId(), 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public List<ItemResponesDto> searchItems(SearchQuery query) {
+        return itemService.searchItems(query.text, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getOwnerBookings(OwnerBookingsQuery query) {
+        return bookingService.getOwnerBookings(randomUserId(), query.state, 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public Map<BookingState, Long> getOwnerBookingsSummary() {
+        return bookingService.getOwnerBookingsSummary(randomUserId());
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(users) + 1;
+    }
+
+    @State(Scope.Benchmark)
+    public static class SearchQuery {
+        // Целое слово и подстрока из середины слова
+        @Param({"дрель", "рфорат"})
+        public String text;
+    }
+
+    @State(Scope.Benchmark)
+    public static class OwnerBookingsQuery {
+        @Param({"ALL", "FUTURE"})
+        public BookingState state;
+    }
+}
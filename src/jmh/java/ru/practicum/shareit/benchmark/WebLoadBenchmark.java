@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочное сравнение обработки запросов Tomcat на пуле платформенных потоков и на виртуальных потоках.
+ * Клиенты в {@link Threads} потоков вызывают блокирующий на JDBC эндпоинт {@code GET /items};
+ * размер пула соединений задаётся свойством {@code spring.datasource.hikari.maximum-pool-size}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WebLoadBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private final SeededContext seeded = new SeededContext();
+    private HttpClient client;
+    private URI items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        seeded.start(WebApplicationType.SERVLET, "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        items = URI.create("http://localhost:" + seeded.localServerPort() + "/items?from=0&size=" + PAGE_SIZE);
+        int status = getUserItems();
+        if (status != 200) {
+            throw new IllegalStateException("GET /items вернул " + status);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        seeded.stop();
+    }
+
+    @Benchmark
+    public int getUserItems() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(items)
+                .header("X-Sharer-User-Id", String.valueOf(ThreadLocalRandom.current().nextInt(seeded.users) + 1))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Календарь подтверждённых бронирований по вещам в памяти процесса.
+ * Календарь вещи загружается из базы при первой проверке и дальше поддерживается при подтверждении
+ * бронирований. Чтение не берёт блокировок; изменения одной вещи сериализуются на одной из STRIPES
+ * блокировок, на ней же выполняется загрузка, поэтому подтверждение не теряется между запросом
+ * к базе и публикацией календаря.
+ * <p>
+ * Изменения, сделанные другими узлами, в календарь этого узла не попадают. Пропущенное пересечение
+ * безопасно: подтверждение перепроверяет его под блокировкой вещи. Найденное пересечение
+ * подтверждается запросом к базе, а разошедшийся с базой календарь выгружается; срок {@code ttl}
+ * ограничивает, как долго календарь может расходиться с базой.
+ */
+@Component
+public class BookingCalendar {
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> calendars;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.calendar.max-items:10000}") long maxItems,
+                           @Value("${shareit.booking.calendar.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Пересекается ли [start, end] с подтверждённым бронированием вещи.
+     * Интервалы, начинающиеся в прошлом, проверяются запросом к базе: в календаре хранятся
+     * только незавершённые бронирования.
+     */
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        if (start.isBefore(now)) {
+            return !bookingRepository.findOverlappingBookings(itemId, start, end).isEmpty();
+        }
+        ItemIntervals intervals = calendars.getIfPresent(itemId);
+        if (intervals == null) {
+            intervals = load(itemId, now);
+        }
+        if (!intervals.overlaps(start, end)) {
+            return false;
+        }
+        // Бронирование могли отменить или отклонить на другом узле
+        if (bookingRepository.findOverlappingBookings(itemId, start, end).isEmpty()) {
+            calendars.invalidate(itemId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Добавляет подтверждённое бронирование в календарь после коммита текущей транзакции.
+     */
+    public void onApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        AfterCommit.run(() -> update(itemId, intervals -> intervals.with(booking.getId(), booking.getStart(),
+                booking.getEnd(), LocalDateTime.now())));
+    }
+
+    /**
+     * Убирает бронирование из календаря после коммита текущей транзакции.
+     */
+    public void onRemoved(Long itemId, Long bookingId) {
+        AfterCommit.run(() -> update(itemId, intervals -> intervals.without(bookingId, LocalDateTime.now())));
+    }
+
+    private ItemIntervals load(Long itemId, LocalDateTime now) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemIntervals intervals = calendars.getIfPresent(itemId);
+            if (intervals == null) {
+                intervals = ItemIntervals.EMPTY;
+                for (Booking booking : bookingRepository.findApprovedBookingsEndingAfter(itemId, now)) {
+                    intervals = intervals.with(booking.getId(), booking.getStart(), booking.getEnd(), now);
+                }
+                calendars.put(itemId, intervals);
+            }
+            return intervals;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(Long itemId, UnaryOperator<ItemIntervals> change) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            // Календари, которые ещё не загружены, будут прочитаны из базы уже с этим изменением
+            ItemIntervals intervals = calendars.getIfPresent(itemId);
+            if (intervals != null) {
+                calendars.put(itemId, change.apply(intervals));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+}
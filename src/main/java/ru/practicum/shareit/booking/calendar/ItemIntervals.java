@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.calendar;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Неизменяемый набор подтверждённых интервалов бронирования одной вещи, отсортированный по началу.
+ * maxEnds[i] хранит наибольший конец среди первых i + 1 интервалов, что позволяет проверить
+ * пересечение одним бинарным поиском.
+ */
+final class ItemIntervals {
+    static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new LocalDateTime[0], new LocalDateTime[0]);
+
+    private final long[] ids;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+    private final LocalDateTime[] maxEnds;
+
+    private ItemIntervals(long[] ids, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new LocalDateTime[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = i == 0 || ends[i].isAfter(maxEnds[i - 1]) ? ends[i] : maxEnds[i - 1];
+        }
+    }
+
+    /**
+     * Есть ли интервал, пересекающийся с [start, end] с учётом границ.
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int low = 0;
+        int high = starts.length - 1;
+        int last = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (!starts[mid].isAfter(end)) {
+                last = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return last >= 0 && !maxEnds[last].isBefore(start);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Возвращает копию с добавленным интервалом, отбрасывая закончившиеся до now.
+     */
+    ItemIntervals with(long id, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        ItemIntervals pruned = without(id, now);
+        int size = pruned.ids.length;
+        int insertAt = 0;
+        while (insertAt < size && !pruned.starts[insertAt].isAfter(start)) {
+            insertAt++;
+        }
+        long[] newIds = new long[size + 1];
+        LocalDateTime[] newStarts = new LocalDateTime[size + 1];
+        LocalDateTime[] newEnds = new LocalDateTime[size + 1];
+        System.arraycopy(pruned.ids, 0, newIds, 0, insertAt);
+        System.arraycopy(pruned.starts, 0, newStarts, 0, insertAt);
+        System.arraycopy(pruned.ends, 0, newEnds, 0, insertAt);
+        newIds[insertAt] = id;
+        newStarts[insertAt] = start;
+        newEnds[insertAt] = end;
+        System.arraycopy(pruned.ids, insertAt, newIds, insertAt + 1, size - insertAt);
+        System.arraycopy(pruned.starts, insertAt, newStarts, insertAt + 1, size - insertAt);
+        System.arraycopy(pruned.ends, insertAt, newEnds, insertAt + 1, size - insertAt);
+        return new ItemIntervals(newIds, newStarts, newEnds);
+    }
+
+    /**
+     * Возвращает копию без интервала id и без интервалов, закончившихся до now.
+     */
+    ItemIntervals without(long id, LocalDateTime now) {
+        long[] newIds = new long[ids.length];
+        LocalDateTime[] newStarts = new LocalDateTime[ids.length];
+        LocalDateTime[] newEnds = new LocalDateTime[ids.length];
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != id && !ends[i].isBefore(now)) {
+                newIds[size] = ids[i];
+                newStarts[size] = starts[i];
+                newEnds[size] = ends[i];
+                size++;
+            }
+        }
+        return new ItemIntervals(Arrays.copyOf(newIds, size), Arrays.copyOf(newStarts, size),
+                Arrays.copyOf(newEnds, size));
+    }
+}
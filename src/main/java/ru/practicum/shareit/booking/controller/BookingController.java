@@ -7,13 +7,19 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.export.BookingExporter;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/bookings")
@@ -21,6 +27,7 @@ import java.util.List;
 @Tag(name = "Бронирования", description = "API для работы с бронированиями")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
     @Operation(summary = "Создание нового бронирования")
@@ -39,6 +46,15 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.approveBooking(userId, bookingId, approved));
     }
 
+    @PatchMapping("/{bookingId}/cancel")
+    @Operation(summary = "Отмена бронирования арендатором",
+            description = "Отменить можно ожидающее или подтверждённое бронирование, которое ещё не началось")
+    public ResponseEntity<BookingResponseDto> cancelBooking(
+            @RequestHeader("X-Sharer-User-Id") @Parameter(description = "ID пользователя") Long userId,
+            @PathVariable @Parameter(description = "ID бронирования") Long bookingId) {
+        return ResponseEntity.ok(bookingService.cancelBooking(userId, bookingId));
+    }
+
     @GetMapping("/{bookingId}")
     @Operation(summary = "Получение информации о бронировании")
     public ResponseEntity<BookingResponseDto> getBooking(
@@ -48,22 +64,58 @@ public class BookingController {
     }
 
     @GetMapping
-    @Operation(summary = "Получение списка бронирований пользователя")
+    @Operation(summary = "Получение списка бронирований пользователя",
+            description = "Если передан курсор cursor, параметр from игнорируется и страница начинается " +
+                          "после позиции курсора. Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
     public ResponseEntity<List<BookingResponseDto>> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") @Parameter(description = "ID пользователя") Long userId,
             @RequestParam(defaultValue = "ALL") @Parameter(description = "Статус бронирования") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero @Parameter(description = "Индекс первого элемента") int from,
-            @RequestParam(defaultValue = "10") @Positive @Parameter(description = "Количество элементов для отображения") int size) {
-        return ResponseEntity.ok(bookingService.getUserBookings(userId, state, from, size));
+            @RequestParam(defaultValue = "10") @Positive @Parameter(description = "Количество элементов для отображения") int size,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы") String cursor) {
+        return withNextCursor(bookingService.getUserBookings(userId, BookingState.from(state), from, size, cursor),
+                size);
     }
 
     @GetMapping("/owner")
-    @Operation(summary = "Получение списка бронирований для вещей пользователя")
+    @Operation(summary = "Получение списка бронирований для вещей пользователя",
+            description = "Если передан курсор cursor, параметр from игнорируется и страница начинается " +
+                          "после позиции курсора. Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
     public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
             @RequestHeader("X-Sharer-User-Id") @Parameter(description = "ID пользователя") Long userId,
             @RequestParam(defaultValue = "ALL") @Parameter(description = "Статус бронирования") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero @Parameter(description = "Индекс первого элемента") int from,
-            @RequestParam(defaultValue = "10") @Positive @Parameter(description = "Количество элементов для отображения") int size) {
-        return ResponseEntity.ok(bookingService.getOwnerBookings(userId, state, from, size));
+            @RequestParam(defaultValue = "10") @Positive @Parameter(description = "Количество элементов для отображения") int size,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы") String cursor) {
+        return withNextCursor(bookingService.getOwnerBookings(userId, BookingState.from(state), from, size, cursor),
+                size);
+    }
+
+    @GetMapping("/owner/summary")
+    @Operation(summary = "Количество бронирований для вещей пользователя по каждому статусу")
+    public ResponseEntity<Map<BookingState, Long>> getOwnerBookingsSummary(
+            @RequestHeader("X-Sharer-User-Id") @Parameter(description = "ID пользователя") Long userId) {
+        return ResponseEntity.ok(bookingService.getOwnerBookingsSummary(userId));
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузка всех бронирований для вещей пользователя",
+            description = "Бронирования выбранного статуса в порядке списка GET /bookings/owner, " +
+                          "по одному JSON-объекту на строку (NDJSON), без постраничного разбиения")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") @Parameter(description = "ID пользователя") Long userId,
+            @RequestParam(defaultValue = "ALL") @Parameter(description = "Статус бронирования") String state) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExporter.exportOwnerBookings(userId, BookingState.from(state)));
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(bookings);
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка бронирований владельца в NDJSON с постоянным расходом памяти: строки читаются курсором
+ * порциями по {@value #FETCH_SIZE}, каждая сразу пишется в ответ, а контекст персистентности
+ * очищается после каждой порции.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExporter {
+    static final int FETCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Проверяет пользователя сразу, чтобы ошибка вернулась статусом ответа, а выгрузку откладывает
+     * до записи тела: она выполняется в отдельном потоке и своей транзакции.
+     */
+    public StreamingResponseBody exportOwnerBookings(Long userId, BookingState state) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        BookingFilter filter = BookingFilter.ofOwner(userId, LocalDateTime.now());
+        return out -> write(filter, state, out);
+    }
+
+    void write(BookingFilter filter, BookingState state, OutputStream out) throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Без сброса после каждой строки вывод буферизуется и уходит порциями
+        ObjectWriter writer = objectMapper.writerFor(BookingResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<Booking> bookings = bookingRepository.streamBookings(filter, state, FETCH_SIZE)) {
+                    Iterator<Booking> iterator = bookings.iterator();
+                    int written = 0;
+                    while (iterator.hasNext()) {
+                        writer.writeValue(generator, bookingMapper.toBookingResponseDto(iterator.next()));
+                        generator.writeRaw('\n');
+                        if (++written % FETCH_SIZE == 0) {
+                            generator.flush();
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
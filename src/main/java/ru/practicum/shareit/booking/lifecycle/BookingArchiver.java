@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.util.AfterCommit;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Переносит бронирования, закончившиеся раньше {@code horizon} назад, в архивную секцию bookings_archive
+ * (V11): PostgreSQL перемещает строку в другую секцию при изменении флага archived. Запросы идут
+ * к секционированной таблице bookings и видят обе секции, поэтому прошедшие бронирования остаются
+ * в списках, а горячая секция не растёт. Неподтверждённые бронирования не архивируются: их сначала
+ * отменяет {@link BookingLifecycleProcessor}. Колонка archived есть только в схеме PostgreSQL,
+ * поэтому архиватор включается свойством {@code shareit.booking.archive.enabled}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true")
+public class BookingArchiver {
+    // SKIP LOCKED: строки, которые сейчас меняет приложение или архиватор другого узла, уйдут в следующий проход
+    private static final String SELECT_SQL = "SELECT id FROM bookings " +
+            "WHERE archived = FALSE AND end_date < :horizon AND status <> 'WAITING' " +
+            "ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String ARCHIVE_SQL = "UPDATE bookings SET archived = TRUE " +
+            "WHERE archived = FALSE AND id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int batchSize;
+    private final Counter archived;
+    private final Timer batchTimer;
+
+    public BookingArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.archive.horizon:90d}") Duration horizon,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        archived = Counter.builder("shareit.bookings.lifecycle")
+                .description("Бронирования, обработанные фоновым обходом")
+                .tag("action", "archived")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("shareit.bookings.archive.batch")
+                .description("Время переноса одной порции бронирований в архив")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.delay:3600000}",
+            initialDelayString = "${shareit.booking.archive.delay:3600000}")
+    public void archiveCompletedBookings() {
+        LocalDateTime before = LocalDateTime.now().minus(horizon);
+        long total = 0;
+        int batch;
+        do {
+            Timer.Sample sample = Timer.start();
+            batch = transactionTemplate.execute(status -> {
+                int archivedInBatch = archiveBatch(before);
+                // После отката строки остались в горячей секции: метрики учитывают только зафиксированные порции
+                AfterCommit.run(() -> {
+                    sample.stop(batchTimer);
+                    archived.increment(archivedInBatch);
+                });
+                return archivedInBatch;
+            });
+            total += batch;
+        } while (batch == batchSize);
+        if (total > 0) {
+            log.info("Перенесено в архив бронирований, закончившихся до {}: {}", before, total);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_SQL,
+                Map.of("horizon", Timestamp.valueOf(before), "limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.update(ARCHIVE_SQL, Map.of("ids", ids));
+        return ids.size();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.outbox.DomainEventPublisher;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.util.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Отменяет бронирования, которые владелец так и не подтвердил до их начала: иначе они навсегда
+ * остаются на вкладке WAITING. Обход идёт порциями по {@code batch-size}, каждая в своей транзакции;
+ * строки порции блокируются с SKIP LOCKED, поэтому узлы, запустившие обход одновременно, делят
+ * бронирования между собой, а не ждут друг друга. Истёкшие бронирования получают статус CANCELLED
+ * и событие BOOKING_EXPIRED. Подтверждённые бронирования в календаре и указателях не затрагиваются.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleProcessor {
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expired;
+    private final Timer batchTimer;
+
+    public BookingLifecycleProcessor(BookingRepository bookingRepository,
+                                     BookingMapper bookingMapper,
+                                     DomainEventPublisher domainEventPublisher,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${shareit.booking.lifecycle.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        expired = Counter.builder("shareit.bookings.lifecycle")
+                .description("Бронирования, обработанные фоновым обходом")
+                .tag("action", "expired")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("shareit.bookings.lifecycle.batch")
+                .description("Время обработки одной порции фонового обхода бронирований")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.delay:60000}",
+            initialDelayString = "${shareit.booking.lifecycle.delay:60000}")
+    public void expireStaleBookings() {
+        // Статус истёкших меняется, поэтому каждая порция читает следующие строки с начала
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int batch;
+        do {
+            Timer.Sample sample = Timer.start();
+            batch = transactionTemplate.execute(status -> {
+                int expiredInBatch = expireBatch(now);
+                // Откаченная порция ничего не отменила: метрики учитывают только зафиксированные
+                AfterCommit.run(() -> {
+                    sample.stop(batchTimer);
+                    expired.increment(expiredInBatch);
+                });
+                return expiredInBatch;
+            });
+            total += batch;
+        } while (batch == batchSize);
+        if (total > 0) {
+            log.info("Отменено неподтверждённых бронирований с прошедшим началом: {}", total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Booking> stale = bookingRepository.findStaleWaitingForUpdate(now, batchSize);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        // Вещи и арендаторы для событий загружаются одним запросом, а не по одному на бронирование
+        bookingRepository.findByIdIn(stale.stream()
+                .map(Booking::getId)
+                .toList());
+        stale.forEach(booking -> booking.setStatus(Booking.BookingStatus.CANCELLED));
+        domainEventPublisher.publishAll(DomainEventType.BOOKING_EXPIRED, stale.stream()
+                .map(bookingMapper::toBookingResponseDto)
+                .toList(), BookingResponseDto::getId);
+        return stale.size();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счётчик shareit.bookings по исходам: created, approved, rejected, cancelled — отмена арендатором —
+ * и conflict — отказ из-за пересечения с подтверждённым бронированием при создании или подтверждении.
+ * Счётчики регистрируются сразу, чтобы нулевые значения тоже были видны.
+ */
+@Component
+public class BookingMetrics {
+    private final Counter created;
+    private final Counter approved;
+    private final Counter rejected;
+    private final Counter cancelled;
+    private final Counter conflict;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        created = counter(meterRegistry, "created");
+        approved = counter(meterRegistry, "approved");
+        rejected = counter(meterRegistry, "rejected");
+        cancelled = counter(meterRegistry, "cancelled");
+        conflict = counter(meterRegistry, "conflict");
+    }
+
+    public void created() {
+        created.increment();
+    }
+
+    public void processed(boolean isApproved) {
+        (isApproved ? approved : rejected).increment();
+    }
+
+    public void cancelled() {
+        cancelled.increment();
+    }
+
+    public void conflict() {
+        conflict.increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("shareit.bookings")
+                .description("Исходы создания и обработки бронирований")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -9,8 +9,18 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
+// В PostgreSQL таблица секционирована на горячую часть и архив по колонке archived (V11), которую
+// заполняет значение по умолчанию и меняет только BookingArchiver
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_booker_start", columnList = "booker_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_booker_status_start", columnList = "booker_id, status, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_start", columnList = "item_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_status_start", columnList = "item_id, status, start_date"),
+        @Index(name = "idx_bookings_item_status_end", columnList = "item_id, status, end_date"),
+        // В PostgreSQL — частичный индекс по start_date WHERE status = 'WAITING'
+        @Index(name = "idx_bookings_waiting_start", columnList = "status, start_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +47,9 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status;
 
+    @Version
+    private Long version;
+
     public enum BookingStatus {
         WAITING,    // ожидает подтверждения
         APPROVED,   // подтверждено
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Вкладка списка бронирований. Каждое состояние задаёт своё условие на бронирование,
+ * поэтому один и тот же запрос строит и страницу списка, и счётчики всех вкладок.
+ */
+public enum BookingState {
+    ALL {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.conjunction();
+        }
+    },
+    CURRENT {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.and(cb.lessThanOrEqualTo(booking.get("start"), now),
+                    cb.greaterThanOrEqualTo(booking.get("end"), now));
+        }
+    },
+    PAST {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.lessThan(booking.get("end"), now);
+        }
+    },
+    FUTURE {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.greaterThan(booking.get("start"), now);
+        }
+    },
+    WAITING {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.equal(booking.get("status"), Booking.BookingStatus.WAITING);
+        }
+    },
+    REJECTED {
+        @Override
+        public Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now) {
+            return cb.equal(booking.get("status"), Booking.BookingStatus.REJECTED);
+        }
+    };
+
+    public abstract Predicate toPredicate(Path<Booking> booking, CriteriaBuilder cb, LocalDateTime now);
+
+    public static BookingState from(String value) {
+        for (BookingState state : values()) {
+            if (state.name().equalsIgnoreCase(value)) {
+                return state;
+            }
+        }
+        throw new BadRequestException("Unknown state: " + value);
+    }
+}
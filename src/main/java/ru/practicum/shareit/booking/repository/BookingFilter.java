@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Чьи бронирования выбираются: арендатора (bookerId) или владельца вещей (ownerId), на момент now.
+ */
+@Value
+public class BookingFilter {
+    Long bookerId;
+    Long ownerId;
+    LocalDateTime now;
+
+    public static BookingFilter ofBooker(Long bookerId, LocalDateTime now) {
+        return new BookingFilter(bookerId, null, now);
+    }
+
+    public static BookingFilter ofOwner(Long ownerId, LocalDateTime now) {
+        return new BookingFilter(null, ownerId, now);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований по вкладкам, собираемые Criteria API из условий {@link BookingState}.
+ */
+public interface BookingQueryRepository {
+    List<Booking> findBookings(BookingFilter filter, BookingState state, Pageable pageable);
+
+    /**
+     * Страница, начинающаяся строго после позиции (cursorStart, cursorId).
+     */
+    List<Booking> findBookingsAfter(BookingFilter filter, BookingState state, LocalDateTime cursorStart,
+                                    Long cursorId, int limit);
+
+    /**
+     * Все бронирования вкладки в порядке списка, читаемые курсором порциями по fetchSize строк.
+     * Поток нужно закрыть, и читать его можно только внутри транзакции.
+     */
+    Stream<Booking> streamBookings(BookingFilter filter, BookingState state, int fetchSize);
+
+    /**
+     * Количество бронирований в каждой вкладке одним агрегирующим запросом.
+     */
+    Map<BookingState, Long> countByState(BookingFilter filter);
+}
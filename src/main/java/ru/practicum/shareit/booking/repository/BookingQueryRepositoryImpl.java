@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findBookings(BookingFilter filter, BookingState state, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = listQuery(cb, filter, state, null, null);
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<Booking> findBookingsAfter(BookingFilter filter, BookingState state, LocalDateTime cursorStart,
+                                           Long cursorId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = listQuery(cb, filter, state, cursorStart, cursorId);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Booking> streamBookings(BookingFilter filter, BookingState state, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = listQuery(cb, filter, state, null, null);
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Map<BookingState, Long> countByState(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        // Вкладки пересекаются (CURRENT и WAITING и т.п.), поэтому вместо GROUP BY — условная сумма на вкладку
+        List<Expression<?>> counts = new ArrayList<>();
+        for (BookingState state : BookingState.values()) {
+            counts.add(cb.sum(cb.<Long>selectCase()
+                    .when(state.toPredicate(booking, cb, filter.getNow()), 1L)
+                    .otherwise(0L)));
+        }
+        query.multiselect(counts.toArray(Expression[]::new))
+                .where(party(cb, booking, filter.getOwnerId() != null ? booking.join("item") : null, filter));
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        Map<BookingState, Long> result = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            // Без строк SUM возвращает NULL
+            Number count = (Number) row.get(state.ordinal());
+            result.put(state, count == null ? 0L : count.longValue());
+        }
+        return result;
+    }
+
+    private CriteriaQuery<Booking> listQuery(CriteriaBuilder cb, BookingFilter filter, BookingState state,
+                                             LocalDateTime cursorStart, Long cursorId) {
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        // Вещь и арендатор подтягиваются тем же запросом: маппер читает их у каждой записи.
+        // Внутреннее соединение с вещами позволяет начать план с вещей владельца
+        @SuppressWarnings("unchecked")
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.<Booking, User>fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(party(cb, booking, item, filter));
+        predicates.add(state.toPredicate(booking, cb, filter.getNow()));
+        if (cursorStart != null) {
+            predicates.add(cb.or(cb.lessThan(booking.get("start"), cursorStart),
+                    cb.and(cb.equal(booking.get("start"), cursorStart), cb.lessThan(booking.get("id"), cursorId))));
+        }
+        return query.select(booking)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+    }
+
+    private Predicate party(CriteriaBuilder cb, Root<Booking> booking, From<Booking, Item> item,
+                            BookingFilter filter) {
+        if (filter.getOwnerId() != null) {
+            return cb.equal(item.get("owner").get("id"), filter.getOwnerId());
+        }
+        return cb.equal(booking.get("booker").get("id"), filter.getBookerId());
+    }
+}
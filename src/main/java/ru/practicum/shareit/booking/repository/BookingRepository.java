@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -8,53 +9,83 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Booking.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.start <= :end AND b.end >= :start")
+    List<Booking> findOverlappingBookings(Long itemId, LocalDateTime start, LocalDateTime end);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.end >= :now")
+    List<Booking> findApprovedBookingsEndingAfter(Long itemId, LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
+    List<Booking> findBookingsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status, LocalDateTime nowtime);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    // Одиночные варианты для пересчёта указателей вещи; страница размером 1 даёт LIMIT 1
+    @Query("SELECT b FROM Booking b " +
+           "WHERE b.item.id = :itemId " +
+           "AND b.status = 'APPROVED' " +
+           "AND b.end < :now " +
+           "ORDER BY b.end DESC, b.id ASC")
+    List<Booking> findLastBooking(Long itemId, LocalDateTime now, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+           "WHERE b.item.id = :itemId " +
+           "AND b.status = 'APPROVED' " +
+           "AND b.start > :now " +
+           "ORDER BY b.start ASC, b.id ASC")
+    List<Booking> findNextBooking(Long itemId, LocalDateTime now, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("SELECT MIN(b.end) FROM Booking b " +
+           "WHERE b.item.id = :itemId " +
+           "AND b.status = 'APPROVED' " +
+           "AND b.end >= :now")
+    Optional<LocalDateTime> findEarliestApprovedEndFrom(Long itemId, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.start <= :end AND b.end >= :start")
-    List<Booking> findOverlappingBookings(Long itemId, LocalDateTime start, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdIn(Collection<Long> ids);
 
-    List<Booking> findBookingsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status, LocalDateTime nowtime);
+    // Неподтверждённые бронирования, начало которых прошло. SKIP LOCKED пропускает строки, которые обрабатывает
+    // другой узел, вместо ожидания. Запрос нативный: Hibernate не передаёт SKIP LOCKED в диалект H2
+    @Query(value = "SELECT * FROM bookings WHERE status = 'WAITING' AND start_date < :now " +
+                   "ORDER BY start_date LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Booking> findStaleWaitingForUpdate(LocalDateTime now, int limit);
 
     @Query("SELECT b FROM Booking b " +
-           "WHERE b.item.id = :itemId " +
+           "JOIN FETCH b.item " +
+           "JOIN FETCH b.booker " +
+           "WHERE b.item.id IN :itemIds " +
            "AND b.status = 'APPROVED' " +
            "AND b.end < :now " +
-           "ORDER BY b.end DESC")
-    Optional<Booking> findLastBooking(Long itemId, LocalDateTime now);
+           "AND b.end = (SELECT MAX(b2.end) FROM Booking b2 " +
+           "             WHERE b2.item.id = b.item.id AND b2.status = 'APPROVED' AND b2.end < :now)")
+    List<Booking> findLastBookings(Collection<Long> itemIds, LocalDateTime now);
 
     @Query("SELECT b FROM Booking b " +
-           "WHERE b.item.id = :itemId " +
+           "JOIN FETCH b.item " +
+           "JOIN FETCH b.booker " +
+           "WHERE b.item.id IN :itemIds " +
            "AND b.status = 'APPROVED' " +
            "AND b.start > :now " +
-           "ORDER BY b.start ASC")
-    Optional<Booking> findNextBooking(Long itemId, LocalDateTime now);
+           "AND b.start = (SELECT MIN(b2.start) FROM Booking b2 " +
+           "               WHERE b2.item.id = b.item.id AND b2.status = 'APPROVED' AND b2.start > :now)")
+    List<Booking> findNextBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b.item.id AS itemId, MIN(b.end) AS earliestEnd FROM Booking b " +
+           "WHERE b.item.id IN :itemIds " +
+           "AND b.status = 'APPROVED' " +
+           "AND b.end >= :now " +
+           "GROUP BY b.item.id")
+    List<ItemEarliestEnd> findEarliestApprovedEndsFrom(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * Ближайшее окончание подтверждённого бронирования вещи.
+     */
+    interface ItemEarliestEnd {
+        Long getItemId();
+
+        LocalDateTime getEarliestEnd();
+    }
 }
\ No newline at end of file
@@ -2,17 +2,23 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     BookingResponseDto createBooking(Long userId, BookingRequestDto bookingRequestDto);
 
     BookingResponseDto approveBooking(Long userId, Long bookingId, boolean approved);
 
+    BookingResponseDto cancelBooking(Long userId, Long bookingId);
+
     BookingResponseDto getBooking(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size);
+    List<BookingResponseDto> getUserBookings(Long userId, BookingState state, int from, int size, String cursor);
+
+    List<BookingResponseDto> getOwnerBookings(Long userId, BookingState state, int from, int size, String cursor);
 
-    List<BookingResponseDto> getOwnerBookings(Long userId, String state, int from, int size);
+    Map<BookingState, Long> getOwnerBookingsSummary(Long userId);
 }
\ No newline at end of file
@@ -1,35 +1,56 @@
 package ru.practicum.shareit.booking.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.metrics.BookingMetrics;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.BookingPointers;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.DomainEventPublisher;
+import ru.practicum.shareit.outbox.model.DomainEventType;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingCalendar bookingCalendar;
+    private final BookingPointers bookingPointers;
+    private final BookingMetrics bookingMetrics;
+    private final DomainEventPublisher domainEventPublisher;
 
     @Override
     @Transactional
@@ -48,8 +69,8 @@ public class BookingServiceImpl implements BookingService {
             bookingRequestDto.getStart().equals(bookingRequestDto.getEnd())) {
             throw new BadRequestException("Некорректные даты бронирования");
         }
-        if (!bookingRepository.findOverlappingBookings(item.getId(),
-                bookingRequestDto.getStart(), bookingRequestDto.getEnd()).isEmpty()) {
+        if (bookingCalendar.hasOverlap(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+            bookingMetrics.conflict();
             throw new BadRequestException("Вещь уже забронирована на указанные даты");
         }
         Booking booking = new Booking();
@@ -59,11 +80,16 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setStatus(Booking.BookingStatus.WAITING);
 
-        return bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        BookingResponseDto created = bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        domainEventPublisher.publish(DomainEventType.BOOKING_CREATED, created.getId(), created);
+        bookingMetrics.created();
+        return created;
     }
 
     @Override
     @Transactional
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+            maxAttempts = 3, backoff = @Backoff(delay = 20, maxDelay = 200, random = true))
     public BookingResponseDto approveBooking(Long userId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
@@ -74,8 +100,65 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() != Booking.BookingStatus.WAITING) {
             throw new ForbiddenException("Бронирование уже обработано");
         }
+        if (approved) {
+            // Подтверждения бронирований одной вещи сериализуются блокировкой строки вещи,
+            // поэтому проверка пересечений видит все уже подтверждённые бронирования
+            Long itemId = booking.getItem().getId();
+            itemRepository.findByIdForUpdate(itemId);
+            if (!bookingRepository.findOverlappingBookings(itemId, booking.getStart(), booking.getEnd()).isEmpty()) {
+                bookingMetrics.conflict();
+                throw new ConflictException("Вещь уже забронирована на указанные даты");
+            }
+        }
+        // Повторная обработка того же бронирования параллельным запросом отсекается по version
         booking.setStatus(approved ? Booking.BookingStatus.APPROVED : Booking.BookingStatus.REJECTED);
-        return bookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        if (approved) {
+            bookingCalendar.onApproved(saved);
+            bookingPointers.refresh(saved.getItem().getId());
+        }
+        itemDetailsCache.evict(booking.getItem().getId());
+        BookingResponseDto processed = bookingMapper.toBookingResponseDto(saved);
+        domainEventPublisher.publish(approved ? DomainEventType.BOOKING_APPROVED : DomainEventType.BOOKING_REJECTED,
+                processed.getId(), processed);
+        bookingMetrics.processed(approved);
+        return processed;
+    }
+
+    @Override
+    @Transactional
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+            maxAttempts = 3, backoff = @Backoff(delay = 20, maxDelay = 200, random = true))
+    public BookingResponseDto cancelBooking(Long userId, Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        if (!booking.getBooker().getId().equals(userId)) {
+            throw new ForbiddenException("Отменить бронирование может только арендатор");
+        }
+        Booking.BookingStatus status = booking.getStatus();
+        if (status != Booking.BookingStatus.WAITING && status != Booking.BookingStatus.APPROVED) {
+            throw new BadRequestException("Бронирование уже отклонено или отменено");
+        }
+        if (!booking.getStart().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Начавшееся бронирование нельзя отменить");
+        }
+        Long itemId = booking.getItem().getId();
+        if (status == Booking.BookingStatus.APPROVED) {
+            // Указатели вещи пересчитываются под блокировкой её строки, как при подтверждении
+            itemRepository.findByIdForUpdate(itemId);
+        }
+        // Параллельное подтверждение или истечение того же бронирования отсекается по version
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        if (status == Booking.BookingStatus.APPROVED) {
+            bookingCalendar.onRemoved(itemId, saved.getId());
+            bookingPointers.refresh(itemId);
+        }
+        itemDetailsCache.evict(itemId);
+        BookingResponseDto cancelled = bookingMapper.toBookingResponseDto(saved);
+        domainEventPublisher.publish(DomainEventType.BOOKING_CANCELLED, cancelled.getId(), cancelled);
+        bookingMetrics.cancelled();
+        return cancelled;
     }
 
     @Override
@@ -90,73 +173,42 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size) {
+    public List<BookingResponseDto> getUserBookings(Long userId, BookingState state, int from, int size,
+                                                    String cursor) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден");
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "CURRENT":
-                bookings = bookingRepository.findCurrentBookingsByBookerId(userId, now, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findPastBookingsByBookerId(userId, now, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findFutureBookingsByBookerId(userId, now, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, Booking.BookingStatus.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, Booking.BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-        }
+        return findBookings(BookingFilter.ofBooker(userId, LocalDateTime.now()), state, from, size, cursor);
+    }
 
-        return bookings.stream()
-                .map(bookingMapper::toBookingResponseDto)
-                .toList();
+    @Override
+    public List<BookingResponseDto> getOwnerBookings(Long userId, BookingState state, int from, int size,
+                                                     String cursor) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        return findBookings(BookingFilter.ofOwner(userId, LocalDateTime.now()), state, from, size, cursor);
     }
 
     @Override
-    public List<BookingResponseDto> getOwnerBookings(Long userId, String state, int from, int size) {
+    public Map<BookingState, Long> getOwnerBookingsSummary(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден");
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.countByState(BookingFilter.ofOwner(userId, LocalDateTime.now()));
+    }
 
+    private List<BookingResponseDto> findBookings(BookingFilter filter, BookingState state, int from, int size,
+                                                  String cursor) {
         List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "CURRENT":
-                bookings = bookingRepository.findCurrentBookingsByOwnerId(userId, now, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findPastBookingsByOwnerId(userId, now, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findFutureBookingsByOwnerId(userId, now, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, Booking.BookingStatus.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, Booking.BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable);
+        if (cursor == null) {
+            bookings = bookingRepository.findBookings(filter, state, PageRequest.of(from / size, size));
+        } else {
+            BookingCursor position = BookingCursor.decode(cursor);
+            bookings = bookingRepository.findBookingsAfter(filter, state, position.getStart(), position.getId(), size);
         }
-
         return bookings.stream()
                 .map(bookingMapper::toBookingResponseDto)
                 .toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEM_DETAILS_CACHE = "itemDetails";
+    /**
+     * Регионы кэша второго уровня Hibernate; размер и время жизни задаются в hibernate-cache.conf.
+     */
+    public static final String USERS_REGION = "users";
+    public static final String ITEMS_REGION = "items";
+    private static final String HIBERNATE_CACHE_CONFIG = "classpath:hibernate-cache.conf";
+
+    /**
+     * Отдаёт Hibernate собственный CacheManager для каждой фабрики сессий. Провайдер JCache хранит по одному
+     * менеджеру на URI, и с общим URI разные Spring-контексты в одной JVM (тестовые — над разными базами)
+     * видели бы записи друг друга. Фрагмент URI при чтении конфигурации не учитывается; закрывает менеджер
+     * сам Hibernate вместе с фабрикой сессий.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManager() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER,
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager(
+                        URI.create(HIBERNATE_CACHE_CONFIG + "#" + UUID.randomUUID()),
+                        CacheConfig.class.getClassLoader()));
+    }
+
+    /**
+     * Публикует cache.gets (hit/miss), cache.puts и cache.removals регионов Hibernate с тегом cache,
+     * как Spring Boot делает для itemDetails: доля попаданий считается по cache.gets.
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory
+                    .unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory()).getCacheManager();
+            for (String region : List.of(USERS_REGION, ITEMS_REGION)) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(region));
+            }
+        };
+    }
+}
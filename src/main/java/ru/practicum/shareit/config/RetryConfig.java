@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Повтор выполняется снаружи транзакции: каждая попытка открывает новую транзакцию
+ * и заново читает данные.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
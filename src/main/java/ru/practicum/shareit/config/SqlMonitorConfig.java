@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.metrics.SqlMonitorListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Оборачивает источник данных в datasource-proxy: через него проходят все операторы JDBC —
+ * Hibernate, JdbcTemplate и миграции, — и {@link SqlMonitorListener} видит каждый с параметрами.
+ */
+@Configuration
+public class SqlMonitorConfig {
+    @Bean
+    public static BeanPostProcessor sqlMonitorDataSourcePostProcessor(
+            @Value("${shareit.sql.monitor.slow-statement:200ms}") Duration slowStatement,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlMonitorListener(slowStatement, meterRegistry))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
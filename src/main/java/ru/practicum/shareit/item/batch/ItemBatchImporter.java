@@ -0,0 +1,193 @@
+package ru.practicum.shareit.item.batch;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.outbox.DomainEventPublisher;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт вещей владельца из JSON-массива или NDJSON.
+ * Вход читается потоком, каждая строка проверяется отдельно, а корректные вещи сохраняются
+ * порциями по {@value #CHUNK_SIZE}: каждая порция — своя транзакция с пакетными INSERT.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBatchImporter {
+    static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemMapper itemMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final RequestMatcher requestMatcher;
+    private final DomainEventPublisher domainEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<ItemImportResultDto> importItems(Long userId, InputStream body) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        List<ItemImportResultDto> results = new ArrayList<>();
+        Chunk chunk = new Chunk();
+        // Итератор разворачивает корневой массив и так же читает значения, идущие подряд (NDJSON)
+        try (MappingIterator<ItemRequestDto> rows = objectMapper.readerFor(ItemRequestDto.class).readValues(body)) {
+            int index = 0;
+            while (true) {
+                ItemRequestDto row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // После синтаксической ошибки границы следующих строк не найти
+                    results.add(ItemImportResultDto.failed(index, "Некорректный JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(ItemImportResultDto.failed(index++,
+                            "Некорректные данные вещи: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String error = validate(row);
+                if (error != null) {
+                    results.add(ItemImportResultDto.failed(index++, error));
+                    continue;
+                }
+                chunk.add(index++, itemMapper.toItem(row));
+                if (chunk.size() == CHUNK_SIZE) {
+                    save(userId, chunk, results);
+                }
+            }
+        }
+        save(userId, chunk, results);
+        results.sort(Comparator.comparingInt(ItemImportResultDto::getIndex));
+        return results;
+    }
+
+    private String validate(ItemRequestDto row) {
+        Set<ConstraintViolation<ItemRequestDto>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private void save(Long userId, Chunk chunk, List<ItemImportResultDto> results) {
+        rejectUnknownRequests(chunk, results);
+        if (chunk.size() == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, userId);
+                for (Item item : chunk.items) {
+                    item.setOwner(owner);
+                    entityManager.persist(item);
+                }
+                // INSERT уходят пакетами при flush, а clear не даёт контексту расти от порции к порции
+                entityManager.flush();
+                domainEventPublisher.publishAll(DomainEventType.ITEM_CREATED, chunk.items.stream()
+                        .map(itemMapper::toItemRespones)
+                        .toList(), ItemResponesDto::getId);
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                Item item = chunk.items.get(i);
+                itemSearchEngine.index(item);
+                requestMatcher.index(item);
+                results.add(ItemImportResultDto.created(chunk.indexes.get(i), item.getId()));
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            // Текст исключения содержит SQL и детали схемы: он остаётся в журнале, клиенту уходит общее сообщение
+            log.warn("Порция импорта вещей пользователя {} не сохранена", userId, e);
+            entityManager.clear();
+            chunk.indexes.forEach(index -> results.add(ItemImportResultDto.failed(index, "Порция не сохранена")));
+        }
+        chunk.clear();
+    }
+
+    // Вещь с несуществующим запросом нарушила бы fk_items_request при flush и откатила всю порцию,
+    // поэтому такие строки отклоняются заранее, по одному запросу к базе на порцию
+    private void rejectUnknownRequests(Chunk chunk, List<ItemImportResultDto> results) {
+        Set<Long> requestIds = chunk.items.stream()
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = itemRequestRepository.findExistingIds(requestIds);
+        for (int i = chunk.size() - 1; i >= 0; i--) {
+            Long requestId = chunk.items.get(i).getRequestId();
+            if (requestId != null && !existing.contains(requestId)) {
+                results.add(ItemImportResultDto.failed(chunk.indexes.get(i),
+                        "Запрос с id " + requestId + " не найден"));
+                chunk.remove(i);
+            }
+        }
+    }
+
+    private static class Chunk {
+        private final List<Integer> indexes = new ArrayList<>(CHUNK_SIZE);
+        private final List<Item> items = new ArrayList<>(CHUNK_SIZE);
+
+        void add(int index, Item item) {
+            indexes.add(index);
+            items.add(item);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void remove(int position) {
+            indexes.remove(position);
+            items.remove(position);
+        }
+
+        void clear() {
+            indexes.clear();
+            items.clear();
+        }
+    }
+}
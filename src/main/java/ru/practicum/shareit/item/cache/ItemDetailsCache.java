@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.util.AfterCommit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш карточки вещи в том виде, в котором её видит не владелец: вещь и комментарии, без бронирований.
+ * Размер и время жизни записей задаются свойством spring.cache.caffeine.spec.
+ * <p>
+ * Запрос, не нашедший карточку, мог прочитать вещь до коммита изменения, а положить её в кэш уже после
+ * вытеснения. Поэтому каждое вытеснение увеличивает счётчик поколения (один на группу id), а карточка,
+ * прочитанная в другом поколении, после записи в кэш сразу удаляется.
+ */
+@Component
+public class ItemDetailsCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public ItemDetailsCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.ITEM_DETAILS_CACHE);
+    }
+
+    public ItemResponesDto get(Long itemId) {
+        return cache.get(itemId, ItemResponesDto.class);
+    }
+
+    /**
+     * Поколение записи вещи; читается до загрузки карточки из базы и передаётся в {@link #put}.
+     */
+    public long generation(Long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    /**
+     * Кладёт карточку, загруженную в поколении {@code generation}. Если с тех пор запись вытеснялась,
+     * карточка могла устареть и удаляется: вытеснение либо видит её в кэше, либо увеличило поколение
+     * до проверки.
+     */
+    public void put(Long itemId, long generation, ItemResponesDto dto) {
+        cache.put(itemId, dto);
+        if (generation(itemId) != generation) {
+            cache.evict(itemId);
+        }
+    }
+
+    /**
+     * Удаляет запись сразу и ещё раз после коммита текущей транзакции. Повторное вытеснение увеличивает
+     * поколение, поэтому карточка, прочитанная параллельным запросом до коммита, в кэше не остаётся.
+     */
+    public void evict(Long itemId) {
+        invalidate(itemId);
+        AfterCommit.run(() -> invalidate(itemId));
+    }
+
+    private void invalidate(Long itemId) {
+        generations.incrementAndGet(stripe(itemId));
+        cache.evict(itemId);
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), STRIPES);
+    }
+}
@@ -8,14 +8,19 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.batch.ItemBatchImporter;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponesDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -24,6 +29,7 @@ import java.util.List;
 @Tag(name = "Управление вещами", description = "API для работы с вещами (предметами) для аренды")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemBatchImporter itemBatchImporter;
 
     @PostMapping
     @Operation(
@@ -50,6 +56,31 @@ public class ItemController {
         return ResponseEntity.ok(itemService.addItem(userId, itemDto));
     }
 
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+            summary = "Импортировать вещи пакетом",
+            description = "Создаёт вещи владельца из JSON-массива или NDJSON (по объекту на строку). " +
+                          "Каждая строка проверяется отдельно; в ответе для каждой строки указан id созданной " +
+                          "вещи или ошибка",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Результаты по строкам"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Пользователь не найден"
+                    )
+            })
+    public ResponseEntity<List<ItemImportResultDto>> importItems(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID владельца вещей", required = true, example = "1")
+            Long userId,
+            @Parameter(description = "Вещи в формате JSON-массива или NDJSON", required = true)
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(itemBatchImporter.importItems(userId, body));
+    }
+
     @PatchMapping("/{itemId}")
     @Operation(
             summary = "Обновить вещь",
@@ -104,7 +135,9 @@ public class ItemController {
     @GetMapping
     @Operation(
             summary = "Получить все вещи пользователя",
-            description = "Возвращает список всех вещей, принадлежащих указанному пользователю",
+            description = "Возвращает страницу вещей, принадлежащих указанному пользователю, упорядоченных по id. " +
+                          "Если передан курсор after, страница начинается после вещи с этим id. " +
+                          "Курсор следующей страницы возвращается в заголовке X-Next-Cursor",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -114,8 +147,26 @@ public class ItemController {
     public ResponseEntity<List<ItemResponesDto>> getUserItems(
             @RequestHeader("X-Sharer-User-Id")
             @Parameter(description = "ID пользователя", required = true, example = "1")
-            Long userId) {
-        return ResponseEntity.ok(itemService.getUserItems(userId));
+            Long userId,
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero
+            @Parameter(description = "Индекс первого элемента")
+            int from,
+            @RequestParam(defaultValue = "10")
+            @Positive
+            @Parameter(description = "Количество элементов для отображения")
+            int size,
+            @RequestParam(required = false)
+            @Positive
+            @Parameter(description = "ID последней вещи предыдущей страницы (курсор)")
+            Long after) {
+        List<ItemResponesDto> items = itemService.getUserItems(userId, from, size, after);
+        if (items.size() < size) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", String.valueOf(items.get(items.size() - 1).getId()))
+                .body(items);
     }
 
     @GetMapping("/search")
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат импорта одной строки: id созданной вещи или текст ошибки.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResultDto {
+    private int index; // порядковый номер строки во входных данных, с нуля
+    private Long id;
+    private String error;
+
+    public static ItemImportResultDto created(int index, Long id) {
+        return new ItemImportResultDto(index, id, null);
+    }
+
+    public static ItemImportResultDto failed(int index, String error) {
+        return new ItemImportResultDto(index, null, error);
+    }
+}
@@ -4,9 +4,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Data
 public class ItemRequestDto {
     @NotBlank(message = "Название вещи не может быть пустым.")
@@ -15,4 +17,5 @@ public class ItemRequestDto {
     private String description;
     @NotNull(message = "Владелец вещи не может быть пустым.")
     private Boolean available;
+    private Long requestId; // запрос, в ответ на который добавлена вещь
 }
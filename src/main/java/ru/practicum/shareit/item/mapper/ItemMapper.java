@@ -2,15 +2,18 @@ package ru.practicum.shareit.item.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponesDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserResponesDto;
+
+import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
-    @Mapping(target = "requestId", ignore = true)
     Item toItem(ItemRequestDto itemRequestDto);
 
     @Mapping(target = "ownerId", source = "owner.id")
@@ -18,4 +21,14 @@ public interface ItemMapper {
     @Mapping(target = "nextBooking", ignore = true)
     @Mapping(target = "comments", ignore = true)
     ItemResponesDto toItemRespones(Item item);
+
+    // Комментарии и их авторы тоже копируются: копия закэшированной карточки не должна делить с ней
+    // изменяемые объекты
+    ItemResponesDto copy(ItemResponesDto dto);
+
+    List<CommentResponseDto> copy(List<CommentResponseDto> comments);
+
+    CommentResponseDto copy(CommentResponseDto comment);
+
+    UserResponesDto copy(UserResponesDto user);
 }
@@ -9,7 +9,9 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_item_created", columnList = "item_id, created DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
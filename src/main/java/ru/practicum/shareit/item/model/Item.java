@@ -4,19 +4,28 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
 /**
  * TODO Sprint add-controllers.
  */
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_items_request_id", columnList = "request_id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.ITEMS_REGION)
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class Item {
+    // Последовательность с шагом 50 и оптимизатором pooled: один nextval на 50 вещей, вставки пакетируются
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id; // уникальный идентификатор вещи
     @Column(nullable = false)
     private String name; // краткое название
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее подтверждённые бронирования вещи, вычисленные заранее.
+ * Хранятся отдельно от items, чтобы их обновление не переписывало строку вещи и её поисковый индекс.
+ */
+@Entity
+@Table(name = "item_booking_pointers", indexes = {
+        @Index(name = "idx_item_booking_pointers_refresh_at", columnList = "refresh_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingPointers {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    // Момент, когда указатели устареют: начало следующего или окончание текущего бронирования
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public boolean isFreshAt(LocalDateTime now) {
+        return refreshAt == null || !refreshAt.isBefore(now);
+    }
+}
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Указатели на последнее и следующее подтверждённые бронирования вещей (таблица item_booking_pointers).
+ * Указатели пересчитываются при подтверждении бронирования и планировщиком, когда наступает refresh_at;
+ * на чтении владелец получает бронирования по первичному ключу вместо сортировки бронирований вещи.
+ * Изменения указателей вещи выполняются под блокировкой строки вещи, как и подтверждение бронирований.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPointers {
+    private static final int BATCH_SIZE = 500;
+    private static final Pageable FIRST = PageRequest.ofSize(1);
+
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Бронирования вещей по сохранённым указателям. Устаревшие и ещё не вычисленные указатели
+     * заменяются расчётом на лету — общим запросом на все такие вещи, без сохранения.
+     */
+    public Map<Long, ItemBookings> get(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointers> fresh = pointersRepository.findAllById(itemIds).stream()
+                .filter(pointers -> pointers.isFreshAt(now))
+                .collect(Collectors.toMap(ItemBookingPointers::getItemId, Function.identity()));
+        List<Long> stale = itemIds.stream()
+                .filter(itemId -> !fresh.containsKey(itemId))
+                .toList();
+
+        Map<Long, Booking> last = new HashMap<>();
+        Map<Long, Booking> next = new HashMap<>();
+        if (!stale.isEmpty()) {
+            last.putAll(groupByItemId(bookingRepository.findLastBookings(stale, now)));
+            next.putAll(groupByItemId(bookingRepository.findNextBookings(stale, now)));
+        }
+        List<Long> bookingIds = fresh.values().stream()
+                .flatMap(pointers -> Stream.of(pointers.getLastBookingId(), pointers.getNextBookingId()))
+                .filter(Objects::nonNull)
+                .toList();
+        if (!bookingIds.isEmpty()) {
+            Map<Long, Booking> bookings = bookingRepository.findByIdIn(bookingIds).stream()
+                    .collect(Collectors.toMap(Booking::getId, Function.identity()));
+            fresh.values().forEach(pointers -> {
+                putIfPresent(last, pointers.getItemId(), bookings.get(pointers.getLastBookingId()));
+                putIfPresent(next, pointers.getItemId(), bookings.get(pointers.getNextBookingId()));
+            });
+        }
+        return itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        itemId -> new ItemBookings(last.get(itemId), next.get(itemId))));
+    }
+
+    /**
+     * Пересчитывает указатели вещи в текущей транзакции. Вызывающий держит блокировку строки вещи.
+     */
+    public void refresh(Long itemId) {
+        pointersRepository.save(compute(itemId, LocalDateTime.now()));
+    }
+
+    /**
+     * Пересчитывает указатели, срок которых наступил, порциями по BATCH_SIZE вещей в транзакции.
+     */
+    @Scheduled(fixedDelayString = "${shareit.items.booking-pointers.sweep-delay:60000}",
+            initialDelayString = "${shareit.items.booking-pointers.sweep-delay:60000}")
+    public void sweep() {
+        // Пересчитанный refresh_at не раньше now, поэтому каждая порция продвигает обход
+        LocalDateTime now = LocalDateTime.now();
+        long refreshed = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<ItemBookingPointers> due = pointersRepository.findByRefreshAtLessThanOrderByRefreshAtAsc(now,
+                        PageRequest.ofSize(BATCH_SIZE));
+                due.forEach(pointers -> recompute(pointers, now));
+                return due.size();
+            });
+            refreshed += batch;
+        } while (batch == BATCH_SIZE);
+        if (refreshed > 0) {
+            log.debug("Пересчитаны указатели бронирований для {} вещей", refreshed);
+        }
+    }
+
+    /**
+     * Сверяет указатели всех вещей с расчётом по бронированиям; при repair исправляет расхождения,
+     * в том числе создаёт недостающие строки.
+     */
+    public BookingPointersReport verify(boolean repair) {
+        long checked = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        long lastItemId = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findByIdGreaterThanOrderByIdAsc(lastItemId, PageRequest.ofSize(BATCH_SIZE))
+                    .stream()
+                    .map(Item::getId)
+                    .toList();
+            List<Long> batch = itemIds;
+            List<Long> batchMismatched = transactionTemplate.execute(status -> verifyBatch(batch, repair));
+            checked += itemIds.size();
+            mismatched += batchMismatched.size();
+            repaired += repair ? batchMismatched.size() : 0;
+            if (!itemIds.isEmpty()) {
+                lastItemId = itemIds.get(itemIds.size() - 1);
+            }
+        } while (itemIds.size() == BATCH_SIZE);
+        log.info("Сверка указателей бронирований: проверено {}, расхождений {}, исправлено {}",
+                checked, mismatched, repaired);
+        return new BookingPointersReport(checked, mismatched, repaired);
+    }
+
+    // Сверка считает всю порцию тремя общими запросами; блокировка и пересчёт — только для расходящихся вещей
+    private List<Long> verifyBatch(List<Long> itemIds, boolean repair) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingPointers> stored = pointersRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingPointers::getItemId, Function.identity()));
+        Map<Long, ItemBookingPointers> computed = computeAll(itemIds, now);
+        List<Long> mismatched = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingPointers current = stored.getOrDefault(itemId, new ItemBookingPointers(itemId, null, null, null));
+            if (current.equals(computed.get(itemId))) {
+                continue;
+            }
+            mismatched.add(itemId);
+            if (repair) {
+                recompute(current, now);
+                pointersRepository.save(current);
+            }
+        }
+        return mismatched;
+    }
+
+    private void recompute(ItemBookingPointers pointers, LocalDateTime now) {
+        itemRepository.findByIdForUpdate(pointers.getItemId());
+        ItemBookingPointers computed = compute(pointers.getItemId(), now);
+        pointers.setLastBookingId(computed.getLastBookingId());
+        pointers.setNextBookingId(computed.getNextBookingId());
+        pointers.setRefreshAt(computed.getRefreshAt());
+    }
+
+    private ItemBookingPointers compute(Long itemId, LocalDateTime now) {
+        List<Booking> last = bookingRepository.findLastBooking(itemId, now, FIRST);
+        List<Booking> next = bookingRepository.findNextBooking(itemId, now, FIRST);
+        return pointers(itemId, last.isEmpty() ? null : last.get(0), next.isEmpty() ? null : next.get(0),
+                bookingRepository.findEarliestApprovedEndFrom(itemId, now).orElse(null));
+    }
+
+    private Map<Long, ItemBookingPointers> computeAll(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Booking> last = groupByItemId(bookingRepository.findLastBookings(itemIds, now));
+        Map<Long, Booking> next = groupByItemId(bookingRepository.findNextBookings(itemIds, now));
+        Map<Long, LocalDateTime> earliestEnds = bookingRepository.findEarliestApprovedEndsFrom(itemIds, now).stream()
+                .collect(Collectors.toMap(BookingRepository.ItemEarliestEnd::getItemId,
+                        BookingRepository.ItemEarliestEnd::getEarliestEnd));
+        return itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        itemId -> pointers(itemId, last.get(itemId), next.get(itemId), earliestEnds.get(itemId))));
+    }
+
+    private static ItemBookingPointers pointers(Long itemId, Booking last, Booking next, LocalDateTime earliestEnd) {
+        // Указатели меняются, когда начинается следующее бронирование или заканчивается текущее
+        LocalDateTime refreshAt = earliestEnd;
+        if (next != null && (refreshAt == null || next.getStart().isBefore(refreshAt))) {
+            refreshAt = next.getStart();
+        }
+        return new ItemBookingPointers(itemId,
+                last == null ? null : last.getId(),
+                next == null ? null : next.getId(),
+                refreshAt);
+    }
+
+    private static void putIfPresent(Map<Long, Booking> target, Long itemId, Booking booking) {
+        if (booking != null) {
+            target.put(itemId, booking);
+        }
+    }
+
+    private static Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        // При совпадении дат у нескольких бронирований берём бронирование с меньшим id
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() <= second.getId() ? first : second));
+    }
+}
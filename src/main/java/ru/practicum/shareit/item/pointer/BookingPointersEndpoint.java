@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * MBean org.springframework.boot:type=Endpoint,name=Bookingpointers: check сверяет указатели бронирований вещей
+ * с бронированиями, rebuild пересобирает расходящиеся указатели. Обе операции обходят все вещи, а rebuild
+ * блокирует их строки, поэтому точка доступна только по JMX: по HTTP её мог бы вызвать любой клиент.
+ */
+@Component
+@JmxEndpoint(id = "bookingpointers")
+@RequiredArgsConstructor
+public class BookingPointersEndpoint {
+    private final BookingPointers bookingPointers;
+
+    @ReadOperation
+    public BookingPointersReport check() {
+        return bookingPointers.verify(false);
+    }
+
+    @WriteOperation
+    public BookingPointersReport rebuild() {
+        return bookingPointers.verify(true);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.Value;
+
+/**
+ * Результат сверки указателей с бронированиями.
+ */
+@Value
+public class BookingPointersReport {
+    long checked;
+    long mismatched;
+    long repaired;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Последнее и следующее подтверждённые бронирования вещи с загруженными вещью и арендатором.
+ */
+@Value
+public class ItemBookings {
+    Booking last;
+    Booking next;
+}
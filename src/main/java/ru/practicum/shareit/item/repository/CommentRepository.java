@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+           "WHERE c.item.id IN :itemIds " +
+           "ORDER BY c.created DESC")
+    List<Comment> findByItemIdInOrderByCreatedDesc(Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+    List<ItemBookingPointers> findByRefreshAtLessThanOrderByRefreshAtAsc(LocalDateTime now, Pageable pageable);
+}
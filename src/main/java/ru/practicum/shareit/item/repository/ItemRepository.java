@@ -1,22 +1,39 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE i.available = true AND " +
-           "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-           "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchItems(String text, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    List<Item> findByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
+
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Pageable pageable);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+                   "WHERE i.available AND i.search_vector @@ to_tsquery('russian', :query) " +
+                   "ORDER BY ts_rank(i.search_vector, to_tsquery('russian', :query)) DESC, i.id",
+           nativeQuery = true)
+    List<Item> fullTextSearch(String query, Pageable pageable);
 
     List<Item> findByRequestId(Long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс в памяти процесса: слово -> вещи, в которых оно встречается.
+ * Подходит для H2 и небольших каталогов; индекс строится при старте и обновляется при сохранении вещей.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine extends InProcessItemSearchEngine {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(tokens);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> page = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip((long) (from / size) * size)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .toList();
+        return loadInOrder(page);
+    }
+
+    @Override
+    public void index(Item item) {
+        Map<String, Integer> weights = new HashMap<>();
+        if (item.isAvailable()) {
+            SearchTokenizer.tokenize(item.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+            SearchTokenizer.tokenize(item.getDescription())
+                    .forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        }
+        lock.writeLock().lock();
+        try {
+            Map<String, Integer> previous = documents.remove(item.getId());
+            if (previous != null) {
+                previous.keySet().forEach(token -> removePosting(token, item.getId()));
+            }
+            if (!weights.isEmpty()) {
+                documents.put(item.getId(), weights);
+                weights.keySet().forEach(token -> postings.computeIfAbsent(token, t -> new HashSet<>())
+                        .add(item.getId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Вещь подходит, если каждое слово запроса является префиксом какого-либо её слова
+    private Map<Long, Integer> score(List<String> tokens) {
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> entry : postings.subMap(token, token + Character.MAX_VALUE).entrySet()) {
+                for (Long itemId : entry.getValue()) {
+                    tokenScores.merge(itemId, documents.get(itemId).get(entry.getKey()), Integer::sum);
+                }
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void removePosting(String token, Long itemId) {
+        Set<Long> itemIds = postings.get(token);
+        if (itemIds != null) {
+            itemIds.remove(itemId);
+            if (itemIds.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+}
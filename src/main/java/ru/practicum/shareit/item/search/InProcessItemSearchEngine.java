@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Основа для движков, которые держат индекс в памяти процесса:
+ * индекс строится при старте приложения и поддерживается вызовами {@link #index(Item)}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+abstract class InProcessItemSearchEngine implements ItemSearchEngine {
+    private static final int BOOTSTRAP_BATCH_SIZE = 1000;
+
+    protected final ItemRepository itemRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long lastId = 0;
+        int indexed = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.ofSize(BOOTSTRAP_BATCH_SIZE));
+            batch.forEach(this::index);
+            indexed += batch.size();
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        log.info("Поисковый индекс вещей {} построен: {} вещей", getClass().getSimpleName(), indexed);
+    }
+
+    /**
+     * Загружает вещи по id, сохраняя порядок идентификаторов и отбрасывая ставшие недоступными.
+     */
+    protected List<Item> loadInOrder(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(item -> item != null && item.isAvailable())
+                .toList();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поисковый движок по названию и описанию доступных вещей.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface ItemSearchEngine {
+    /**
+     * Возвращает доступные вещи, подходящие под текст запроса, в порядке убывания релевантности.
+     */
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Обновляет индекс после создания или изменения вещи. Вызывается после коммита транзакции,
+     * чтобы откаченные изменения не попадали в выдачу.
+     */
+    void index(Item item);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счётчик поисковых запросов shareit.search.queries с тегами engine и result (found или empty).
+ */
+@Component
+public class SearchMetrics {
+    private final Counter found;
+    private final Counter empty;
+
+    public SearchMetrics(MeterRegistry meterRegistry, @Value("${shareit.search.engine:memory}") String engine) {
+        found = counter(meterRegistry, engine, "found");
+        empty = counter(meterRegistry, engine, "empty");
+    }
+
+    public void searched(boolean hasResults) {
+        (hasResults ? found : empty).increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String engine, String result) {
+        return Counter.builder("shareit.search.queries")
+                .description("Поисковые запросы по вещам")
+                .tag("engine", engine)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Триграммный индекс по названию и описанию для поиска подстроки без учёта регистра.
+ * Поиск пересекает списки вещей для всех триграмм запроса, затем проверяет кандидатов по тексту,
+ * поэтому результат совпадает с LOWER(name) LIKE '%text%' OR LOWER(description) LIKE '%text%'.
+ * Класс не потокобезопасен.
+ */
+final class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final LongObjectHashMap<LongPostingList> postings = new LongObjectHashMap<>();
+    private final LongObjectHashMap<Document> documents = new LongObjectHashMap<>();
+
+    void put(long id, String name, String description) {
+        remove(id);
+        Document document = new Document(name.toLowerCase(Locale.ROOT), description.toLowerCase(Locale.ROOT));
+        documents.put(id, document);
+        for (long gram : document.trigrams()) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                list = new LongPostingList();
+                postings.put(gram, list);
+            }
+            list.add(id);
+        }
+    }
+
+    void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (long gram : document.trigrams()) {
+            LongPostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Возвращает id подходящих вещей по возрастанию, пропуская первые offset совпадений.
+     */
+    long[] search(String text, long offset, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        long[] candidates = query.length() < GRAM_LENGTH ? documents.sortedKeys() : candidates(query);
+        long[] result = new long[Math.min(limit, candidates.length)];
+        int found = 0;
+        long skipped = 0;
+        for (int i = 0; i < candidates.length && found < limit; i++) {
+            if (documents.get(candidates[i]).contains(query)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result[found++] = candidates[i];
+                }
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    private long[] candidates(String query) {
+        long[] grams = trigrams(query, "");
+        LongPostingList[] lists = new LongPostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        // Начинаем с самого короткого списка, остальные проверяем бинарным поиском
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        long[] candidates = lists[0].toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (lists[i].contains(candidates[j])) {
+                    candidates[kept++] = candidates[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static long[] trigrams(String first, String second) {
+        long[] grams = new long[Math.max(0, first.length() - 2) + Math.max(0, second.length() - 2)];
+        int count = addTrigrams(first, grams, 0);
+        count = addTrigrams(second, grams, count);
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static int addTrigrams(String text, long[] grams, int from) {
+        int count = from;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams[count++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return count;
+    }
+
+    private record Document(String name, String description) {
+        long[] trigrams() {
+            return TrigramIndex.trigrams(name, description);
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
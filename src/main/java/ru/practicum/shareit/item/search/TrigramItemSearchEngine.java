@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поиск по подстроке ("дрел", "шуруп") через триграммный индекс в памяти процесса.
+ * В индексе хранятся только доступные вещи; результаты упорядочены по id.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine extends InProcessItemSearchEngine {
+    private final TrigramIndex index = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(text, (long) (from / size) * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return loadInOrder(Arrays.stream(ids).boxed().toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (item.isAvailable()) {
+                index.put(item.getId(), item.getName(), item.getDescription());
+            } else {
+                index.remove(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
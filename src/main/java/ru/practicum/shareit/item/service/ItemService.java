@@ -14,7 +14,7 @@ public interface ItemService {
 
     ItemResponesDto getItem(Long userId, Long itemId);
 
-    List<ItemResponesDto> getUserItems(Long userId);
+    List<ItemResponesDto> getUserItems(Long userId, int from, int size, Long after);
 
     List<ItemResponesDto> searchItems(String text, int from, int size);
 
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -9,6 +10,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
@@ -17,18 +19,30 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.BookingPointers;
+import ru.practicum.shareit.item.pointer.ItemBookings;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.SearchMetrics;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.DomainEventPublisher;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.AfterCommit;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
@@ -38,15 +52,31 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingPointers bookingPointers;
+    private final SearchMetrics searchMetrics;
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestMatcher requestMatcher;
+    private final DomainEventPublisher domainEventPublisher;
 
     @Override
     @Transactional
     public ItemResponesDto addItem(Long userId, ItemRequestDto itemRequestDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
+        Long requestId = itemRequestDto.getRequestId();
+        if (requestId != null && !itemRequestRepository.existsById(requestId)) {
+            throw new NotFoundException("Запрос с id " + requestId + " не найден");
+        }
         Item item = itemMapper.toItem(itemRequestDto);
         item.setOwner(user);
-        return itemMapper.toItemRespones(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        AfterCommit.run(() -> itemSearchEngine.index(saved));
+        requestMatcher.onItemAdded(saved);
+        ItemResponesDto created = itemMapper.toItemRespones(saved);
+        domainEventPublisher.publish(DomainEventType.ITEM_CREATED, created.getId(), created);
+        return created;
     }
 
     @Override
@@ -55,7 +85,8 @@ public class ItemServiceImpl implements ItemService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
 
-        Item item = itemRepository.findById(itemId)
+        // Блокировка строки держит порядок событий вещи и тогда, когда ни одно поле не изменилось
+        Item item = itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"));
 
         if (!item.getOwner().getId().equals(userId)) {
@@ -70,51 +101,69 @@ public class ItemServiceImpl implements ItemService {
         if (itemRequestDto.getAvailable() != null) {
             item.setAvailable(itemRequestDto.getAvailable());
         }
-        return itemMapper.toItemRespones(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        AfterCommit.run(() -> itemSearchEngine.index(saved));
+        requestMatcher.index(saved);
+        itemDetailsCache.evict(itemId);
+        ItemResponesDto updated = itemMapper.toItemRespones(saved);
+        domainEventPublisher.publish(DomainEventType.ITEM_UPDATED, itemId, updated);
+        return updated;
     }
 
     @Override
     public ItemResponesDto getItem(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
-
-        ItemResponesDto dto = itemMapper.toItemRespones(item);
-        dto.setComments(commentRepository.findByItemIdOrderByCreatedDesc(itemId).stream()
-                .map(commentMapper::toCommentResponseDto)
-                .collect(Collectors.toList()));
-
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-            bookingRepository.findLastBooking(itemId, now)
-                    .ifPresent(booking -> dto.setLastBooking(bookingMapper.toBookingResponseDto(booking)));
-            bookingRepository.findNextBooking(itemId, now)
-                    .ifPresent(booking -> dto.setNextBooking(bookingMapper.toBookingResponseDto(booking)));
+        long generation = itemDetailsCache.generation(itemId);
+        ItemResponesDto details = itemDetailsCache.get(itemId);
+        if (details == null) {
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+            details = itemMapper.toItemRespones(item);
+            details.setComments(commentRepository.findByItemIdOrderByCreatedDesc(itemId).stream()
+                    .map(commentMapper::toCommentResponseDto)
+                    .collect(Collectors.toList()));
+            itemDetailsCache.put(itemId, generation, details);
         }
 
+        // Вызывающий получает копию: изменения результата не должны попасть в общий кэш
+        ItemResponesDto dto = itemMapper.copy(details);
+        if (!details.getOwnerId().equals(userId)) {
+            return dto;
+        }
+        // Бронирования видит только владелец
+        setBookings(dto, bookingPointers.get(List.of(itemId), LocalDateTime.now()).get(itemId));
         return dto;
     }
 
     @Override
-    public List<ItemResponesDto> getUserItems(Long userId) {
+    public List<ItemResponesDto> getUserItems(Long userId, int from, int size, Long after) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден");
         }
 
+        // С курсором after страница ищется по индексу (owner_id, id) без OFFSET
+        List<Item> items = after == null
+                ? itemRepository.findByOwnerIdOrderByIdAsc(userId, PageRequest.of(from / size, size))
+                : itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, after, PageRequest.ofSize(size));
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+
+        // Комментарии и бронирования подгружаются одним запросом на все вещи, а не по запросу на каждую
         LocalDateTime now = LocalDateTime.now();
-        return itemRepository.findByOwnerId(userId).stream()
+        Map<Long, List<CommentResponseDto>> comments = commentRepository.findByItemIdInOrderByCreatedDesc(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentResponseDto, Collectors.toList())));
+        Map<Long, ItemBookings> bookings = bookingPointers.get(itemIds, now);
+
+        return items.stream()
                 .map(item -> {
                     ItemResponesDto dto = itemMapper.toItemRespones(item);
-                    dto.setComments(commentRepository.findByItemIdOrderByCreatedDesc(item.getId()).stream()
-                            .map(commentMapper::toCommentResponseDto)
-                            .collect(Collectors.toList()));
-
-                    if (item.getOwner().getId().equals(userId)) {
-                        bookingRepository.findLastBooking(item.getId(), now)
-                                .ifPresent(booking -> dto.setLastBooking(bookingMapper.toBookingResponseDto(booking)));
-                        bookingRepository.findNextBooking(item.getId(), now)
-                                .ifPresent(booking -> dto.setNextBooking(bookingMapper.toBookingResponseDto(booking)));
-                    }
-
+                    dto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+                    setBookings(dto, bookings.get(item.getId()));
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -125,9 +174,11 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isEmpty()) {
             return List.of();
         }
-        return itemRepository.searchItems(text, PageRequest.of(from / size, size)).stream()
+        List<ItemResponesDto> found = itemSearchEngine.search(text, from, size).stream()
                 .map(itemMapper::toItemRespones)
                 .toList();
+        searchMetrics.searched(!found.isEmpty());
+        return found;
     }
 
     @Override
@@ -135,7 +186,9 @@ public class ItemServiceImpl implements ItemService {
     public CommentResponseDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Item item = itemRepository.findById(itemId)
+        // Комментарий не меняет строку вещи, а событие относится к её агрегату: без блокировки
+        // COMMENT_ADDED и ITEM_UPDATED одной вещи могли бы получить id не в порядке коммитов
+        Item item = itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         // Проверяем, что пользователь брал вещь в аренду
         List<Booking> bookings = bookingRepository.findBookingsByBookerIdAndItemIdAndStatusAndEndBefore(
@@ -148,6 +201,19 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
-        return commentMapper.toCommentResponseDto(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        itemDetailsCache.evict(itemId);
+        CommentResponseDto created = commentMapper.toCommentResponseDto(saved);
+        domainEventPublisher.publish(DomainEventType.COMMENT_ADDED, itemId, created);
+        return created;
+    }
+
+    private void setBookings(ItemResponesDto dto, ItemBookings bookings) {
+        if (bookings.getLast() != null) {
+            dto.setLastBooking(bookingMapper.toBookingResponseDto(bookings.getLast()));
+        }
+        if (bookings.getNext() != null) {
+            dto.setNextBooking(bookingMapper.toBookingResponseDto(bookings.getNext()));
+        }
     }
-}
+}
\ No newline at end of file
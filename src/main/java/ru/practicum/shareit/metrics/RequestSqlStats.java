@@ -0,0 +1,68 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счётчики SQL текущего HTTP-запроса: число выполненных операторов и суммарное время JDBC.
+ * Накапливаются в потоке запроса между {@link #start(boolean)} и {@link #finish()}; вне запроса не ведутся.
+ * В отобранных запросах дополнительно считается, сколько раз выполнялся каждый оператор, —
+ * по этому видно цикл запросов N+1.
+ */
+public final class RequestSqlStats {
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions;
+    private int statements;
+    private long jdbcNanos;
+
+    private RequestSqlStats(boolean sampled) {
+        executions = sampled ? new HashMap<>() : null;
+    }
+
+    static void start(boolean sampled) {
+        CURRENT.set(new RequestSqlStats(sampled));
+    }
+
+    static RequestSqlStats finish() {
+        RequestSqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static void record(String sql, long nanos) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.jdbcNanos += nanos;
+            if (stats.executions != null) {
+                stats.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public boolean isSampled() {
+        return executions != null;
+    }
+
+    /**
+     * Чаще всего выполнявшийся оператор отобранного запроса или null.
+     */
+    Map.Entry<String, Integer> mostRepeated() {
+        if (executions == null) {
+            return null;
+        }
+        return executions.entrySet().stream()
+                .max(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .orElse(null);
+    }
+}
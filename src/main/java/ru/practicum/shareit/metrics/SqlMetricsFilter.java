@@ -0,0 +1,91 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикует число SQL-операторов и время JDBC каждого HTTP-запроса с тегами method, uri и status —
+ * теми же, что у http.server.requests, поэтому медленный эндпоинт видно вместе с его запросами к базе.
+ * Запрос, выполнивший больше shareit.sql.monitor.max-statements-per-request операторов, считается
+ * в shareit.http.sql.excessive и пишется в лог. Для доли запросов shareit.sql.monitor.sample-rate
+ * в лог попадает и самый частый оператор — обычно это тело цикла N+1.
+ */
+@Slf4j
+@Component
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final double sampleRate;
+
+    public SqlMetricsFilter(MeterRegistry meterRegistry,
+                            @Value("${shareit.sql.monitor.max-statements-per-request:50}") int maxStatements,
+                            @Value("${shareit.sql.monitor.sample-rate:1.0}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats.start(ThreadLocalRandom.current().nextDouble() < sampleRate);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats stats = RequestSqlStats.finish();
+            String uri = uri(request);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri,
+                    "status", String.valueOf(response.getStatus()));
+            DistributionSummary.builder("shareit.http.sql.statements")
+                    .description("Число SQL-операторов за HTTP-запрос")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            Timer.builder("shareit.http.sql.time")
+                    .description("Время выполнения SQL за HTTP-запрос")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+            if (stats.getStatements() > maxStatements) {
+                reportExcessive(request.getMethod(), uri, stats);
+            }
+        }
+    }
+
+    private void reportExcessive(String method, String uri, RequestSqlStats stats) {
+        Counter.builder("shareit.http.sql.excessive")
+                .description("HTTP-запросы, выполнившие больше SQL-операторов, чем допускает порог")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .increment();
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        log.warn("{} {} выполнил {} SQL-операторов за {} мс при пороге {}{}", method, uri, stats.getStatements(),
+                TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()), maxStatements,
+                repeated == null ? "" : "; чаще всего (" + repeated.getValue() + " раз): " + repeated.getKey());
+    }
+
+    private static String uri(HttpServletRequest request) {
+        // Шаблон пути вместо самого пути, чтобы id не раздували число серий
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
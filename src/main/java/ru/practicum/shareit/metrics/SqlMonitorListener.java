@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Слушатель всех операторов JDBC: добавляет каждый к {@link RequestSqlStats} текущего запроса,
+ * а операторы дольше порога пишет в лог вместе со значениями параметров и считает в shareit.sql.slow.
+ * Параметры форматируются только для медленных операторов, поэтому на остальных слушатель почти бесплатен.
+ */
+@Slf4j
+public class SqlMonitorListener implements QueryExecutionListener {
+    private static final String START = "shareit.start";
+    private static final int MAX_LOGGED_ROWS = 5;
+
+    private final long slowNanos;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlMonitorListener(Duration slowStatement, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.slowNanos = slowStatement.toNanos();
+        // Реестр берётся лениво: источник данных создаётся раньше него
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - execInfo.getCustomValue(START, Long.class);
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        RequestSqlStats.record(sql, nanos);
+        if (nanos >= slowNanos) {
+            log.warn("Медленный SQL: {} мс, {}{} параметры {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql,
+                    execInfo.isBatch() ? " (пакет из " + execInfo.getBatchSize() + ")" : "",
+                    parameters(queryInfoList));
+            meterRegistry.ifAvailable(registry -> registry.counter("shareit.sql.slow").increment());
+        }
+    }
+
+    private static String parameters(List<QueryInfo> queryInfoList) {
+        List<List<ParameterSetOperation>> rows = queryInfoList.stream()
+                .flatMap(query -> query.getParametersList().stream())
+                .toList();
+        String logged = rows.stream()
+                .limit(MAX_LOGGED_ROWS)
+                .map(row -> row.stream()
+                        .map(operation -> operation.getArgs()[0] + "=" + value(operation))
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(" "));
+        return rows.size() > MAX_LOGGED_ROWS ? logged + " и ещё " + (rows.size() - MAX_LOGGED_ROWS) : logged;
+    }
+
+    private static Object value(ParameterSetOperation operation) {
+        return ParameterSetOperation.isSetNullParameterOperation(operation) || operation.getArgs().length < 2
+                ? null
+                : operation.getArgs()[1];
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Миграция с заполнением данных порциями. Выполняется вне транзакции: каждая порция фиксируется
+ * отдельно, поэтому блокировки держатся только на строках текущей порции, а прерванную миграцию
+ * можно повторить — она продолжит с незаполненных строк.
+ * <p>
+ * Порядок: {@link #prepare()} (быстрые DDL, например новая nullable-колонка), затем
+ * {@link #batchUpdate()} до тех пор, пока он изменяет строки, затем {@link #finish()}.
+ * Все шаги должны быть идемпотентными.
+ * Бины этого типа Spring Boot передаёт во Flyway вместе с SQL-миграциями.
+ */
+@Slf4j
+public abstract class BatchedBackfillMigration implements JavaMigration {
+    private final MigrationVersion version;
+    private final String description;
+    private final int batchSize;
+
+    protected BatchedBackfillMigration(String version, String description, int batchSize) {
+        this.version = MigrationVersion.fromVersion(version);
+        this.description = description;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * DDL до заполнения.
+     */
+    protected abstract List<String> prepare();
+
+    /**
+     * UPDATE одной порции; единственный параметр — размер порции.
+     */
+    protected abstract String batchUpdate();
+
+    /**
+     * DDL после заполнения, например ограничения на заполненную колонку.
+     */
+    protected abstract List<String> finish();
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        execute(connection, prepare());
+        long total = 0;
+        int updated;
+        try (PreparedStatement statement = connection.prepareStatement(batchUpdate())) {
+            do {
+                statement.setInt(1, batchSize);
+                updated = statement.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                total += updated;
+            } while (updated > 0);
+        }
+        log.info("Миграция {}: заполнено {} строк", version, total);
+        execute(connection, finish());
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    private static void execute(Connection connection, List<String> statements) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.migration;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Заполняет item_booking_pointers для существующих вещей; порядок выбора бронирований
+ * совпадает с BookingPointers: при равных датах берётся меньший id.
+ */
+@Component
+public class ItemBookingPointersMigration extends BatchedBackfillMigration {
+    private static final int BATCH_SIZE = 5_000;
+
+    public ItemBookingPointersMigration() {
+        super("5", "item booking pointers", BATCH_SIZE);
+    }
+
+    @Override
+    protected List<String> prepare() {
+        return List.of();
+    }
+
+    @Override
+    protected String batchUpdate() {
+        return "INSERT INTO item_booking_pointers (item_id, last_booking_id, next_booking_id, refresh_at) " +
+               "SELECT i.id, " +
+               "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+               "  AND b.end_date < LOCALTIMESTAMP ORDER BY b.end_date DESC, b.id LIMIT 1), " +
+               "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+               "  AND b.start_date > LOCALTIMESTAMP ORDER BY b.start_date, b.id LIMIT 1), " +
+               "LEAST(" +
+               "(SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+               "  AND b.start_date > LOCALTIMESTAMP), " +
+               "(SELECT MIN(b.end_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+               "  AND b.end_date >= LOCALTIMESTAMP)) " +
+               "FROM items i " +
+               "WHERE NOT EXISTS (SELECT 1 FROM item_booking_pointers p WHERE p.item_id = i.id) " +
+               "ORDER BY i.id LIMIT ?";
+    }
+
+    @Override
+    protected List<String> finish() {
+        return List.of();
+    }
+}
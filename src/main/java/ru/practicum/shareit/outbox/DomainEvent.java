@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие в том виде, в котором его получают слушатели: payload — DTO изменённой сущности.
+ */
+@Value
+public class DomainEvent {
+    Long id;
+    DomainEventType type;
+    Long aggregateId;
+    JsonNode payload;
+    LocalDateTime created;
+}
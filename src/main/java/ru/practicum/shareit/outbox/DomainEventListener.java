@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Получатель доменных событий из outbox. Доставка «хотя бы один раз»: событие, на котором слушатель
+ * выбросил исключение, и все следующие события того же агрегата будут доставлены всем слушателям повторно,
+ * поэтому обработка должна быть идемпотентной (например, по {@link DomainEvent#getId()}).
+ * Слушатель вызывается внутри транзакции ретранслятора и не должен надолго её задерживать.
+ */
+public interface DomainEventListener {
+    void onEvent(DomainEvent event);
+}
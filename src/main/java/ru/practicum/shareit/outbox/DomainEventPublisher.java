@@ -0,0 +1,67 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Записывает доменные события в outbox в текущей транзакции: событие видно ретранслятору
+ * тогда и только тогда, когда зафиксировано изменение, которое оно описывает.
+ * Строки вставляются через JDBC — их не читают в той же транзакции, а импорт пишет их пакетом.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private static final String INSERT = "INSERT INTO outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, payload, created, attempts, parked) "
+            + "VALUES (?, ?, ?, ?, ?, 0, FALSE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long aggregateId, Object payload) {
+        flush();
+        jdbcTemplate.update(INSERT, row(type, aggregateId, payload));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void publishAll(DomainEventType type, List<T> payloads, Function<T, Long> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        flush();
+        jdbcTemplate.batchUpdate(INSERT, payloads.stream()
+                .map(payload -> row(type, aggregateId.apply(payload), payload))
+                .toList());
+    }
+
+    // Отложенные изменения уходят в базу до того, как событию выдан id. Вызывающий к этому моменту держит
+    // блокировку строки агрегата (UPDATE или SELECT ... FOR UPDATE), поэтому у конкурирующих изменений
+    // того же агрегата порядок id совпадает с порядком коммитов
+    private void flush() {
+        entityManager.flush();
+    }
+
+    private Object[] row(DomainEventType type, Long aggregateId, Object payload) {
+        try {
+            return new Object[]{type.getAggregateType(), aggregateId, type.name(),
+                    objectMapper.writeValueAsString(payload), LocalDateTime.now()};
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать событие " + type, e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ретранслятор outbox: читает события порциями по {@code batch-size} в порядке id, доставляет их
+ * слушателям и удаляет доставленные в той же транзакции. Порция блокируется, поэтому ретрансляторы
+ * нескольких экземпляров работают по очереди и не нарушают порядок.
+ * Если слушатель выбросил исключение, событие и все следующие события его агрегата остаются в таблице
+ * и повторяются с экспоненциальной задержкой от {@code retry-delay} до {@code max-retry-delay}; события
+ * других агрегатов доставляются дальше. После {@code max-attempts} неудачных попыток событие откладывается
+ * (parked) и вместе со следующими событиями агрегата ждёт разбора: чтобы доставить их снова, событию
+ * сбрасывают parked, attempts и next_attempt_at. Отставание — возраст самого старого события, которое
+ * ещё будет доставлено, — публикуется в shareit.outbox.lag, число отложенных — в shareit.outbox.parked.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<DomainEventListener> listeners;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+    // Время записи самого старого недоставленного события на момент последнего обхода
+    private volatile LocalDateTime oldestPending;
+    private volatile long parkedEvents;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<DomainEventListener> listeners,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.batch-size:500}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.retry-delay:1s}") Duration retryDelay,
+                       @Value("${shareit.outbox.max-retry-delay:5m}") Duration maxRetryDelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        delivered = counter(meterRegistry, "delivered");
+        failed = counter(meterRegistry, "failed");
+        parked = counter(meterRegistry, "parked");
+        TimeGauge.builder("shareit.outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::lagMillis)
+                .description("Возраст самого старого недоставленного события outbox")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.parked", this, relay -> relay.parkedEvents)
+                .description("События outbox, отложенные после исчерпания попыток доставки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Доставляет накопившиеся события. Полная порция без ошибок означает, что в таблице могут быть ещё
+     * события, и следующая читается сразу, без ожидания {@code poll-delay}.
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay:200}",
+            initialDelayString = "${shareit.outbox.poll-delay:200}")
+    public void drain() {
+        List<DomainEventListener> targets = listeners.orderedStream().toList();
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch(targets));
+        } while (relayed == batchSize);
+        oldestPending = outboxEventRepository.findOldestPendingCreated().orElse(null);
+        parkedEvents = outboxEventRepository.countByParkedTrue();
+    }
+
+    long lagMillis() {
+        LocalDateTime oldest = oldestPending;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private int relayBatch(List<DomainEventListener> targets) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findReadyForDelivery(now, PageRequest.ofSize(batchSize));
+        Set<String> blocked = new HashSet<>();
+        List<Long> relayed = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                DomainEvent domainEvent = new DomainEvent(event.getId(), event.getEventType(), event.getAggregateId(),
+                        objectMapper.readTree(event.getPayload()), event.getCreated());
+                for (DomainEventListener target : targets) {
+                    target.onEvent(domainEvent);
+                }
+                relayed.add(event.getId());
+            } catch (JsonProcessingException | RuntimeException e) {
+                // Следующие события агрегата ждут, пока это не будет доставлено
+                blocked.add(aggregate);
+                fail(event, aggregate, now, e);
+            }
+        }
+        if (!relayed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(relayed);
+            delivered.increment(relayed.size());
+        }
+        return relayed.size();
+    }
+
+    private void fail(OutboxEvent event, String aggregate, LocalDateTime now, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        failed.increment();
+        if (attempts >= maxAttempts) {
+            event.setParked(true);
+            parked.increment();
+            log.error("Событие {} {} агрегата {} отложено после {} попыток; следующие события агрегата ждут",
+                    event.getId(), event.getEventType(), aggregate, attempts, e);
+            return;
+        }
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (delay.compareTo(maxRetryDelay) > 0) {
+            delay = maxRetryDelay;
+        }
+        event.setNextAttemptAt(now.plus(delay));
+        // Стек пишется при первой ошибке, повторы — одной строкой
+        if (attempts == 1) {
+            log.warn("Событие {} {} агрегата {} не доставлено, повтор через {}", event.getId(),
+                    event.getEventType(), aggregate, delay, e);
+        } else {
+            log.warn("Событие {} {} агрегата {} не доставлено, попытка {}, повтор через {}: {}", event.getId(),
+                    event.getEventType(), aggregate, attempts, delay, e.toString());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.outbox.events")
+                .description("События outbox: доставленные слушателям, попытки с ошибкой и отложенные")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
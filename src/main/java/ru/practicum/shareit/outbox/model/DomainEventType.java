@@ -0,0 +1,26 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Типы доменных событий. События одного агрегата доставляются в порядке записи;
+ * комментарий относится к агрегату вещи, потому что меняет её карточку.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DomainEventType {
+    BOOKING_CREATED(DomainEventType.BOOKING),
+    BOOKING_APPROVED(DomainEventType.BOOKING),
+    BOOKING_REJECTED(DomainEventType.BOOKING),
+    BOOKING_CANCELLED(DomainEventType.BOOKING),
+    BOOKING_EXPIRED(DomainEventType.BOOKING),
+    ITEM_CREATED(DomainEventType.ITEM),
+    ITEM_UPDATED(DomainEventType.ITEM),
+    COMMENT_ADDED(DomainEventType.ITEM);
+
+    public static final String BOOKING = "booking";
+    public static final String ITEM = "item";
+
+    private final String aggregateType;
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.outbox.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Доменное событие, записанное в той же транзакции, что и изменение, и ещё не доставленное слушателям.
+ * Доставленные события удаляются, поэтому таблица содержит только очередь и отложенные
+ * после исчерпания попыток события.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    // IDENTITY, а не блоки последовательности: порядок id совпадает с порядком записи на всех экземплярах
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 64)
+    private DomainEventType eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // DTO изменённой сущности в JSON
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+
+    @Column(nullable = false)
+    private int attempts; // неудачные попытки доставки
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // не раньше этого времени событие доставляется повторно
+
+    @Column(nullable = false)
+    private boolean parked; // попытки исчерпаны: событие и следующие события агрегата ждут разбора
+}
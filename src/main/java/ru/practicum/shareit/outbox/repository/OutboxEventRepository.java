@@ -0,0 +1,41 @@
+package ru.practicum.shareit.outbox.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // События, готовые к доставке: у агрегата нет более раннего или этого же события, ожидающего повтора
+    // или отложенного, поэтому такие агрегаты не занимают порцию и не задерживают остальные.
+    // Ретрансляторы разных экземпляров ждут друг друга на блокировке, а не забирают события в обход порядка
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e " +
+           "WHERE NOT EXISTS (SELECT 1 FROM OutboxEvent b " +
+           "                  WHERE b.aggregateType = e.aggregateType " +
+           "                  AND b.aggregateId = e.aggregateId " +
+           "                  AND b.id <= e.id " +
+           "                  AND (b.parked = true OR b.nextAttemptAt > :now)) " +
+           "ORDER BY e.id")
+    List<OutboxEvent> findReadyForDelivery(LocalDateTime now, Pageable pageable);
+
+    // Время записи самого старого события, которое ещё будет доставлено: отложенные события и следующие
+    // за ними события того же агрегата ждут разбора и учитываются отдельно
+    @Query("SELECT MIN(e.created) FROM OutboxEvent e " +
+           "WHERE NOT EXISTS (SELECT 1 FROM OutboxEvent b " +
+           "                  WHERE b.aggregateType = e.aggregateType " +
+           "                  AND b.aggregateId = e.aggregateId " +
+           "                  AND b.id <= e.id " +
+           "                  AND b.parked = true)")
+    Optional<LocalDateTime> findOldestPendingCreated();
+
+    long countByParkedTrue();
+}
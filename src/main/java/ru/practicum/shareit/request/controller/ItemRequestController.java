@@ -0,0 +1,165 @@
+package ru.practicum.shareit.request.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Tag(name = "Запросы вещей", description = "API для запросов вещей, которых нет среди доступных")
+public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @Operation(
+            summary = "Создать запрос",
+            description = "Создаёт запрос вещи от имени пользователя",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Запрос создан"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Пустое описание запроса"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Пользователь не найден"
+                    )
+            })
+    public ResponseEntity<ItemRequestResponseDto> addRequest(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID автора запроса", required = true, example = "1")
+            Long userId,
+            @Valid
+            @RequestBody
+            @Parameter(description = "Данные запроса", required = true)
+            ItemRequestDto itemRequestDto) {
+        return ResponseEntity.ok(itemRequestService.addRequest(userId, itemRequestDto));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Получить свои запросы",
+            description = "Возвращает запросы пользователя, новые первыми, вместе с вещами, добавленными в ответ",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Список запросов пользователя"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Пользователь не найден"
+                    )
+            })
+    public ResponseEntity<List<ItemRequestResponseDto>> getUserRequests(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            Long userId) {
+        return ResponseEntity.ok(itemRequestService.getUserRequests(userId));
+    }
+
+    @GetMapping("/all")
+    @Operation(
+            summary = "Получить запросы других пользователей",
+            description = "Возвращает страницу чужих запросов, новые первыми. Если передан курсор after, " +
+                          "параметр from игнорируется и страница начинается после запроса с этим id. " +
+                          "Курсор следующей страницы возвращается в заголовке X-Next-Cursor",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Страница запросов"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Пользователь не найден"
+                    )
+            })
+    public ResponseEntity<List<ItemRequestResponseDto>> getOtherUsersRequests(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            Long userId,
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero
+            @Parameter(description = "Индекс первого элемента")
+            int from,
+            @RequestParam(defaultValue = "10")
+            @Positive
+            @Parameter(description = "Количество элементов для отображения")
+            int size,
+            @RequestParam(required = false)
+            @Positive
+            @Parameter(description = "ID последнего запроса предыдущей страницы (курсор)")
+            Long after) {
+        List<ItemRequestResponseDto> requests = itemRequestService.getOtherUsersRequests(userId, from, size, after);
+        if (requests.size() < size) {
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", String.valueOf(requests.get(requests.size() - 1).getId()))
+                .body(requests);
+    }
+
+    @GetMapping(path = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Подписаться на подходящие запросы",
+            description = "Открывает поток Server-Sent Events. Событие match приходит, когда создан запрос, " +
+                          "к которому подходят вещи пользователя, или когда добавленная им вещь подходит " +
+                          "к недавним запросам. Клиент, который не успевает читать события, отключается",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Поток событий"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Пользователь не найден"
+                    )
+            })
+    public SseEmitter subscribe(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID владельца вещей", required = true, example = "1")
+            Long userId) {
+        return itemRequestService.subscribe(userId);
+    }
+
+    @GetMapping("/{requestId}")
+    @Operation(
+            summary = "Получить запрос по ID",
+            description = "Возвращает запрос вместе с вещами, добавленными в ответ на него",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Запрос"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Запрос или пользователь не найден"
+                    )
+            })
+    public ResponseEntity<ItemRequestResponseDto> getRequest(
+            @RequestHeader("X-Sharer-User-Id")
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            Long userId,
+            @PathVariable
+            @Parameter(description = "ID запроса", required = true, example = "1")
+            Long requestId) {
+        return ResponseEntity.ok(itemRequestService.getRequest(userId, requestId));
+    }
+}
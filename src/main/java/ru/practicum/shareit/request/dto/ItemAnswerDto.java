@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private Long ownerId;
+}
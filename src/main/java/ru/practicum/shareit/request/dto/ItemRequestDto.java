@@ -1,19 +1,14 @@
 package ru.practicum.shareit.request.dto;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import ru.practicum.shareit.user.model.User;
+import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
-
-/**
- * TODO Sprint add-item-requests.
- */
 @AllArgsConstructor
+@NoArgsConstructor
 @Data
 public class ItemRequestDto {
-    private int id; // уникальный идентификатор запроса
+    @NotBlank(message = "Описание запроса не может быть пустым.")
     private String description; // текст запроса, содержащий описание требуемой вещи
-    private User requestor; // пользователь, создавший запрос
-    private LocalDateTime created;
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ItemRequestResponseDto {
+    private Long id;
+    private String description;
+    private Long requestorId;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items; // вещи, добавленные в ответ на запрос
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Уведомление владельцу: запрос, на который могут ответить его вещи.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RequestMatchDto {
+    private Long requestId;
+    private String description;
+    private Long requestorId;
+    private List<ItemAnswerDto> items; // вещи владельца, подходящие к запросу
+}
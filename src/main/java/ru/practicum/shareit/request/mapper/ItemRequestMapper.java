@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ItemRequestMapper {
+    @Mapping(target = "requestorId", source = "request.requestor.id")
+    @Mapping(target = "items", source = "items")
+    ItemRequestResponseDto toItemRequestResponseDto(ItemRequest request, List<ItemAnswerDto> items);
+
+    // id владельца берётся из прокси без его загрузки
+    @Mapping(target = "ownerId", source = "owner.id")
+    ItemAnswerDto toItemAnswerDto(Item item);
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.util.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сопоставляет запросы вещей с вещами по словам и отправляет совпадения подписанным владельцам.
+ * Вещь подходит к запросу, если слово из её названия (не короче {@value #MIN_TOKEN_LENGTH} букв)
+ * встречается в описании запроса. В памяти держатся два индекса «слово -> id»: названия доступных вещей
+ * и описания последних {@code max-requests} запросов. Сопоставление выполняется после коммита,
+ * только для владельцев с открытой подпиской, и не обращается к базе.
+ */
+@Slf4j
+@Component
+public class RequestMatcher {
+    static final int MIN_TOKEN_LENGTH = 3;
+    // Новая вещь сообщает владельцу не больше чем о стольких самых свежих запросах
+    static final int MAX_REQUESTS_PER_ITEM = 20;
+    private static final int BOOTSTRAP_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestNotificationHub notificationHub;
+    private final int maxRequests;
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> itemsByToken = new HashMap<>();
+    // Порядок вставки — порядок создания: при переполнении вытесняются самые старые запросы
+    private final LinkedHashMap<Long, IndexedRequest> requests = new LinkedHashMap<>();
+    private final Map<String, Set<Long>> requestsByToken = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RequestMatcher(ItemRepository itemRepository,
+                          ItemRequestRepository itemRequestRepository,
+                          RequestNotificationHub notificationHub,
+                          @Value("${shareit.requests.matching.max-requests:100000}") int maxRequests) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.notificationHub = notificationHub;
+        this.maxRequests = maxRequests;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            itemsByToken.clear();
+            requests.clear();
+            requestsByToken.clear();
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.ofSize(BOOTSTRAP_BATCH_SIZE));
+                batch.forEach(this::indexItem);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+            List<ItemRequest> latest = itemRequestRepository.findByIdLessThanOrderByIdDesc(Long.MAX_VALUE,
+                    PageRequest.ofSize(maxRequests));
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                indexRequest(latest.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс сопоставления запросов построен: {} вещей, {} запросов", items.size(), requests.size());
+    }
+
+    /**
+     * После коммита добавляет запрос в индекс и сообщает о нём владельцам подходящих вещей.
+     */
+    public void onRequestAdded(ItemRequest request) {
+        IndexedRequest indexed = new IndexedRequest(request.getId(), request.getRequestor().getId(),
+                request.getDescription(), tokens(request.getDescription()));
+        AfterCommit.run(() -> {
+            Map<Long, List<ItemAnswerDto>> byOwner = new HashMap<>();
+            lock.writeLock().lock();
+            try {
+                putRequest(indexed);
+                for (Long itemId : matching(itemsByToken, indexed.tokens)) {
+                    IndexedItem item = items.get(itemId);
+                    if (!item.ownerId.equals(indexed.requestorId) && notificationHub.isSubscribed(item.ownerId)) {
+                        byOwner.computeIfAbsent(item.ownerId, id -> new ArrayList<>()).add(item.toAnswer());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            byOwner.forEach((ownerId, answers) -> notificationHub.publish(ownerId, indexed.toMatch(answers)));
+        });
+    }
+
+    /**
+     * После коммита добавляет новую вещь в индекс и сообщает владельцу о свежих запросах, к которым она подходит.
+     */
+    public void onItemAdded(Item item) {
+        IndexedItem indexed = IndexedItem.of(item);
+        AfterCommit.run(() -> {
+            List<IndexedRequest> matched = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                putItem(item.getId(), indexed);
+                if (indexed != null && notificationHub.isSubscribed(indexed.ownerId)) {
+                    for (Long requestId : matching(requestsByToken, indexed.tokens).descendingSet()) {
+                        IndexedRequest request = requests.get(requestId);
+                        if (!request.requestorId.equals(indexed.ownerId)) {
+                            matched.add(request);
+                        }
+                        if (matched.size() == MAX_REQUESTS_PER_ITEM) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            matched.forEach(request -> notificationHub.publish(indexed.ownerId,
+                    request.toMatch(List.of(indexed.toAnswer()))));
+        });
+    }
+
+    /**
+     * После коммита обновляет вещь в индексе без уведомлений: изменённая вещь или пакетный импорт.
+     */
+    public void index(Item item) {
+        IndexedItem indexed = IndexedItem.of(item);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                putItem(item.getId(), indexed);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void indexItem(Item item) {
+        putItem(item.getId(), IndexedItem.of(item));
+    }
+
+    private void indexRequest(ItemRequest request) {
+        putRequest(new IndexedRequest(request.getId(), request.getRequestor().getId(), request.getDescription(),
+                tokens(request.getDescription())));
+    }
+
+    // Вызывается под блокировкой записи; null убирает вещь из индекса
+    private void putItem(Long itemId, IndexedItem indexed) {
+        IndexedItem previous = indexed == null ? items.remove(itemId) : items.put(itemId, indexed);
+        if (previous != null) {
+            previous.tokens.forEach(token -> removePosting(itemsByToken, token, itemId));
+        }
+        if (indexed != null) {
+            indexed.tokens.forEach(token -> itemsByToken.computeIfAbsent(token, t -> new HashSet<>()).add(itemId));
+        }
+    }
+
+    // Вызывается под блокировкой записи
+    private void putRequest(IndexedRequest request) {
+        requests.put(request.id, request);
+        request.tokens.forEach(token -> requestsByToken.computeIfAbsent(token, t -> new HashSet<>()).add(request.id));
+        while (requests.size() > maxRequests) {
+            Iterator<IndexedRequest> eldestFirst = requests.values().iterator();
+            IndexedRequest eldest = eldestFirst.next();
+            eldestFirst.remove();
+            eldest.tokens.forEach(token -> removePosting(requestsByToken, token, eldest.id));
+        }
+    }
+
+    private static TreeSet<Long> matching(Map<String, Set<Long>> postings, Set<String> tokens) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (String token : tokens) {
+            ids.addAll(postings.getOrDefault(token, Set.of()));
+        }
+        return ids;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String token, Long id) {
+        Set<Long> ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : SearchTokenizer.tokenize(text)) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedItem(Long id, Long ownerId, String name, Set<String> tokens) {
+        // Недоступная вещь не участвует в сопоставлении
+        static IndexedItem of(Item item) {
+            if (!item.isAvailable()) {
+                return null;
+            }
+            return new IndexedItem(item.getId(), item.getOwner().getId(), item.getName(), RequestMatcher.tokens(item.getName()));
+        }
+
+        ItemAnswerDto toAnswer() {
+            return new ItemAnswerDto(id, name, ownerId);
+        }
+    }
+
+    private record IndexedRequest(Long id, Long requestorId, String description, Set<String> tokens) {
+        RequestMatchDto toMatch(List<ItemAnswerDto> answers) {
+            return new RequestMatchDto(id, description, requestorId, answers);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SSE-подписки владельцев на подходящие запросы вещей.
+ * Публикация никогда не блокируется: событие кладётся в ограниченную очередь подписчика, а отправляет
+ * его задача на собственном пуле хаба, не больше одной на подписчика одновременно. Запись в сокет
+ * медленного клиента блокирует поток, поэтому пул отделён от applicationTaskExecutor, где выполняются
+ * асинхронные ответы MVC, и ограничен {@code sender-threads} потоками. Медленный клиент, чья очередь
+ * переполнилась или чья отправка не завершилась за {@code write-timeout}, отключается — пропущенное
+ * он дочитывает из GET /requests/all после переподключения — поэтому память на подписчика ограничена
+ * {@code queue-capacity} событиями.
+ */
+@Slf4j
+@Component
+public class RequestNotificationHub {
+    static final String MATCH_EVENT = "match";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final TaskExecutor sender;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final long writeTimeoutNanos;
+    private final Counter queued;
+    private final Counter overflow;
+    private final Counter stalled;
+
+    @Autowired
+    public RequestNotificationHub(MeterRegistry meterRegistry,
+                                  @Value("${shareit.requests.notifications.sender-threads:4}") int senderThreads,
+                                  @Value("${shareit.requests.notifications.sender-queue-capacity:1000}")
+                                  int senderQueueCapacity,
+                                  @Value("${shareit.requests.notifications.queue-capacity:100}") int queueCapacity,
+                                  @Value("${shareit.requests.notifications.timeout:30m}") Duration timeout,
+                                  @Value("${shareit.requests.notifications.write-timeout:10s}") Duration writeTimeout) {
+        this(senderExecutor(senderThreads, senderQueueCapacity), meterRegistry, queueCapacity, timeout, writeTimeout);
+    }
+
+    RequestNotificationHub(TaskExecutor sender, MeterRegistry meterRegistry, int queueCapacity, Duration timeout,
+                           Duration writeTimeout) {
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        queued = counter(meterRegistry, "queued");
+        overflow = counter(meterRegistry, "overflow");
+        stalled = counter(meterRegistry, "stalled");
+        Gauge.builder("shareit.requests.subscribers", subscribers, map -> map.values().stream()
+                        .mapToInt(Set::size)
+                        .sum())
+                .description("Открытые SSE-подписки на подходящие запросы")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeout.toMillis()));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+        // Добавление внутри compute не разойдётся с удалением опустевшего набора в close
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> result = userSubscribers == null ? ConcurrentHashMap.newKeySet() : userSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        // До первого события ответ не отправляется, и клиент не знает, что подписка открыта
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            subscriber.close();
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Есть ли у пользователя открытые подписки: сопоставление для остальных владельцев не выполняется.
+     */
+    public boolean isSubscribed(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publish(Long userId, RequestMatchDto match) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(SseEmitter.event()
+                    .name(MATCH_EVENT)
+                    .id(String.valueOf(match.getRequestId()))
+                    .data(match, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Комментарий раз в интервал не даёт прокси закрыть молчащее соединение и выявляет отвалившихся клиентов.
+     * Заодно отключаются подписчики, чья отправка не завершилась за {@code write-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${shareit.requests.notifications.heartbeat:30000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.stalledAt(now)) {
+                stalled.increment();
+                log.debug("Отправка подписчику {} не завершилась за {} мс, он отключён", subscriber.userId,
+                        Duration.ofNanos(writeTimeoutNanos).toMillis());
+                subscriber.disconnect();
+            } else {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor senderExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-sender-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.requests.notifications")
+                .description("События подписчикам: поставленные в очередь, отброшенные из-за переполнения "
+                        + "и отключения из-за зависшей отправки")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Когда текущая отправка встала в пул или начала писать очередное событие, 0 — отправки нет
+        private final AtomicLong sendScheduledAt = new AtomicLong();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                overflow.increment();
+                log.debug("Подписчик {} не успевает читать события и отключён", userId);
+                disconnect();
+                return;
+            }
+            queued.increment();
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                sendScheduledAt.set(System.nanoTime());
+                try {
+                    sender.execute(this::send);
+                } catch (TaskRejectedException e) {
+                    // Все потоки пула заняты и очередь задач полна: подписчик подождёт следующего события
+                    sendScheduledAt.set(0);
+                    sending.set(false);
+                }
+            }
+        }
+
+        boolean stalledAt(long now) {
+            long scheduledAt = sendScheduledAt.get();
+            return scheduledAt != 0 && now - scheduledAt > writeTimeoutNanos;
+        }
+
+        private void send() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    sendScheduledAt.set(System.nanoTime());
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                sendScheduledAt.set(0);
+                sending.set(false);
+            }
+            // Событие могло прийти после последнего poll, но до сброса флага
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleSend();
+            }
+        }
+
+        /**
+         * Закрывает подписку и завершает ответ. send и complete у эмиттера синхронизированы, и завершение
+         * ждало бы зависшую отправку, поэтому оно выполняется в пуле отправки, а не в потоке публикации.
+         * Сам зависший в записи поток освобождает таймаут записи Tomcat (server.tomcat.connection-timeout).
+         */
+        void disconnect() {
+            close();
+            try {
+                sender.execute(emitter::complete);
+            } catch (TaskRejectedException e) {
+                // Ответ закроется по timeout эмиттера
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+                    userSubscribers.remove(this);
+                    return userSubscribers.isEmpty() ? null : userSubscribers;
+                });
+            }
+        }
+    }
+}
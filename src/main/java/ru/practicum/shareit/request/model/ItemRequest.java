@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запрос вещи, которой нет среди доступных: владельцы отвечают на него, добавляя вещь с его id.
+ */
+@Entity
+@Table(name = "requests", indexes = {
+        @Index(name = "idx_requests_requestor_created", columnList = "requestor_id, created DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // уникальный идентификатор запроса
+
+    @Column(nullable = false)
+    private String description; // текст запроса, содержащий описание требуемой вещи
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requestor_id", nullable = false)
+    private User requestor; // пользователь, создавший запрос
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
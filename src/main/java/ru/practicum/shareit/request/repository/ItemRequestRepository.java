@@ -0,0 +1,32 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequestorIdOrderByCreatedDescIdDesc(Long requestorId);
+
+    /**
+     * Лента чужих запросов, новые первыми. Страница читается по первичному ключу от курсора вниз,
+     * без OFFSET; первая страница начинается с {@link Long#MAX_VALUE}.
+     */
+    List<ItemRequest> findByRequestorIdNotAndIdLessThanOrderByIdDesc(Long requestorId, Long id, Pageable pageable);
+
+    List<ItemRequest> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Возвращает те из переданных id, для которых запрос существует, — одним запросом на всю порцию.
+     */
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestResponseDto addRequest(Long userId, ItemRequestDto itemRequestDto);
+
+    List<ItemRequestResponseDto> getUserRequests(Long userId);
+
+    List<ItemRequestResponseDto> getOtherUsersRequests(Long userId, int from, int size, Long after);
+
+    ItemRequestResponseDto getRequest(Long userId, Long requestId);
+
+    SseEmitter subscribe(Long userId);
+}
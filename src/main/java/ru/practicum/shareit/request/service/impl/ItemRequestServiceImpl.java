@@ -0,0 +1,111 @@
+package ru.practicum.shareit.request.service.impl;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.matching.RequestNotificationHub;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestMapper itemRequestMapper;
+    private final RequestMatcher requestMatcher;
+    private final RequestNotificationHub notificationHub;
+
+    @Override
+    @Transactional
+    public ItemRequestResponseDto addRequest(Long userId, ItemRequestDto itemRequestDto) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
+        ItemRequest request = new ItemRequest();
+        request.setDescription(itemRequestDto.getDescription());
+        request.setRequestor(user);
+        request.setCreated(LocalDateTime.now());
+        ItemRequest saved = itemRequestRepository.save(request);
+        requestMatcher.onRequestAdded(saved);
+        return itemRequestMapper.toItemRequestResponseDto(saved, List.of());
+    }
+
+    @Override
+    public List<ItemRequestResponseDto> getUserRequests(Long userId) {
+        checkUserExists(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    @Override
+    public List<ItemRequestResponseDto> getOtherUsersRequests(Long userId, int from, int size, Long after) {
+        checkUserExists(userId);
+        // С курсором after страница начинается сразу после него; без курсора — с начала ленты со смещением from
+        PageRequest page = after == null ? PageRequest.of(from / size, size) : PageRequest.ofSize(size);
+        return withAnswers(itemRequestRepository.findByRequestorIdNotAndIdLessThanOrderByIdDesc(userId,
+                after == null ? Long.MAX_VALUE : after, page));
+    }
+
+    @Override
+    public ItemRequestResponseDto getRequest(Long userId, Long requestId) {
+        checkUserExists(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id " + requestId + " не найден"));
+        return itemRequestMapper.toItemRequestResponseDto(request, itemRepository.findByRequestId(requestId).stream()
+                .map(itemRequestMapper::toItemAnswerDto)
+                .toList());
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        checkUserExists(userId);
+        return notificationHub.subscribe(userId);
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден");
+        }
+    }
+
+    /**
+     * Ответы на все запросы страницы читаются одним запросом и раскладываются по запросам в памяти,
+     * так что число запросов к базе не зависит от размера страницы.
+     */
+    private List<ItemRequestResponseDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList())
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(itemRequestMapper::toItemAnswerDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> itemRequestMapper.toItemRequestResponseDto(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+}
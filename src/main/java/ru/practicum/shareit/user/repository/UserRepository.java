@@ -12,4 +12,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Проверка через {@link #findById}, а не count-запросом Spring Data: так она обслуживается
+     * кэшем второго уровня и почти никогда не доходит до базы.
+     */
+    @Override
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
 }
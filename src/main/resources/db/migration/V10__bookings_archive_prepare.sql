@@ -0,0 +1,19 @@
+-- Подготовка к разделению bookings на горячую секцию и архив (V11). Всё, что сканирует таблицу,
+-- делается здесь, вне транзакции (V10__bookings_archive_prepare.sql.conf) и без блокировки записи,
+-- чтобы V11 под эксклюзивной блокировкой выполнял только изменения каталога.
+
+-- Значение по умолчанию без volatile-функций не переписывает таблицу (PostgreSQL 11+)
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS archived BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Проверенное ограничение доказывает, что все строки принадлежат горячей секции,
+-- и ATTACH PARTITION в V11 не сканирует таблицу повторно
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_hot_check;
+ALTER TABLE bookings ADD CONSTRAINT bookings_hot_check CHECK (archived = FALSE) NOT VALID;
+ALTER TABLE bookings VALIDATE CONSTRAINT bookings_hot_check;
+
+-- Первичный ключ секционированной таблицы включает ключ секционирования. Индекс строится заранее,
+-- V11 превращает его в ключ горячей секции
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS bookings_hot_pkey ON bookings (id, archived);
+
+-- Архиватор выбирает завершённые бронирования по окончанию; индекс нужен только горячей секции
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_hot_end_date ON bookings (end_date);
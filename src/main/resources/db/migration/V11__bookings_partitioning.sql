@@ -0,0 +1,55 @@
+-- bookings становится таблицей, секционированной по флагу archived: существующая таблица без копирования
+-- присоединяется горячей секцией, завершённые бронирования архиватор переносит в bookings_archive.
+-- Запросы по-прежнему идут к bookings и видят обе секции; горячая секция и её индексы остаются
+-- небольшими и помещаются в shared_buffers. Миграция выполняется в одной транзакции и меняет только каталог:
+-- сканирующие таблицу шаги сделаны в V10.
+LOCK TABLE bookings IN ACCESS EXCLUSIVE MODE;
+
+-- Столбец идентификации не переносится на секционированную таблицу (до PostgreSQL 17),
+-- поэтому id выдаёт обычная последовательность, как у items в V6
+CREATE SEQUENCE IF NOT EXISTS bookings_seq;
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Ключ горячей секции — (id, archived), как у родительской таблицы; индекс построен в V10
+ALTER TABLE bookings DROP CONSTRAINT bookings_pkey;
+ALTER TABLE bookings ADD CONSTRAINT bookings_hot_pkey PRIMARY KEY USING INDEX bookings_hot_pkey;
+
+-- Имена индексов освобождаются для родительской таблицы; при ATTACH PARTITION совпадающие
+-- по определению индексы горячей секции присоединяются к родительским без перестроения
+ALTER TABLE bookings RENAME TO bookings_hot;
+ALTER INDEX IF EXISTS idx_bookings_booker_start RENAME TO idx_bookings_hot_booker_start;
+ALTER INDEX IF EXISTS idx_bookings_booker_status_start RENAME TO idx_bookings_hot_booker_status_start;
+ALTER INDEX IF EXISTS idx_bookings_item_start RENAME TO idx_bookings_hot_item_start;
+ALTER INDEX IF EXISTS idx_bookings_item_status_start RENAME TO idx_bookings_hot_item_status_start;
+ALTER INDEX IF EXISTS idx_bookings_item_status_end RENAME TO idx_bookings_hot_item_status_end;
+ALTER INDEX IF EXISTS idx_bookings_waiting_start RENAME TO idx_bookings_hot_waiting_start;
+
+CREATE TABLE bookings (
+    id BIGINT NOT NULL DEFAULT nextval('bookings_seq'),
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT bookings_pkey PRIMARY KEY (id, archived),
+    CONSTRAINT fk_bookings_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT check_dates CHECK (end_date > start_date)
+) PARTITION BY LIST (archived);
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
+
+CREATE TABLE bookings_archive PARTITION OF bookings FOR VALUES IN (TRUE);
+ALTER TABLE bookings ATTACH PARTITION bookings_hot FOR VALUES IN (FALSE);
+
+-- После присоединения ограничение мешало бы переносу строк в архив
+ALTER TABLE bookings_hot DROP CONSTRAINT bookings_hot_check;
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
@@ -0,0 +1,8 @@
+-- Повторы с задержкой и откладывание событий, исчерпавших попытки доставки
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS parked BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Ретранслятор для каждого события проверяет, нет ли у агрегата ожидающего повтора или отложенного события.
+-- Таких строк немного, поэтому индекс частичный
+CREATE INDEX IF NOT EXISTS idx_outbox_events_waiting ON outbox_events (aggregate_type, aggregate_id, id)
+    WHERE parked OR next_attempt_at IS NOT NULL;
@@ -0,0 +1,15 @@
+-- CONCURRENTLY строит индекс без блокировки записи в таблицу, но не работает внутри транзакции,
+-- поэтому миграция выполняется вне её (V2__booking_lookup_indexes.sql.conf).
+-- Если построение прервалось, в базе остаётся невалидный индекс: его нужно удалить
+-- (DROP INDEX CONCURRENTLY) перед повтором миграции, иначе IF NOT EXISTS его пропустит.
+
+-- Вещи, созданные в ответ на запрос
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- Подтверждённые бронирования вещи: пересечения и следующее бронирование по началу,
+-- последнее бронирование и календарь по окончанию
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+-- Комментарии к вещам, новые первыми
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
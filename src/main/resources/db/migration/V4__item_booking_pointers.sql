@@ -0,0 +1,12 @@
+-- Заранее вычисленные последнее и следующее подтверждённые бронирования вещи.
+-- Внешних ключей на bookings нет: указатели пересчитываются, а не каскадно удаляются.
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+    item_id BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    refresh_at TIMESTAMP,
+    CONSTRAINT fk_item_booking_pointers_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+-- Планировщик выбирает указатели, срок которых наступил
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_refresh_at ON item_booking_pointers (refresh_at);
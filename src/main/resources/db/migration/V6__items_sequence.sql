@@ -0,0 +1,11 @@
+-- Идентификаторы вещей выдаёт последовательность с шагом 50: Hibernate резервирует блок id одним nextval
+-- (оптимизатор pooled), а с IDENTITY он не может пакетировать INSERT.
+-- Значение последовательности — верхняя граница блока, поэтому она начинается на 50 выше текущего максимума.
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50, false);
+
+-- Вставки в обход Hibernate берут id той же последовательностью; занятое ими значение
+-- больше не станет верхней границей блока, поэтому с блоками Hibernate они не пересекаются
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
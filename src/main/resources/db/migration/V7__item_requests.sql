@@ -0,0 +1,16 @@
+-- Запросы вещей; свои запросы пользователь видит новыми первыми
+CREATE TABLE IF NOT EXISTS requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description TEXT NOT NULL,
+    requestor_id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT fk_requests_requestor FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+
+-- items.request_id заполнялся и до появления таблицы запросов, поэтому существующие строки не проверяются
+-- (NOT VALID): ключ действует для новых и изменённых вещей, а старые значения можно проверить позже
+-- командой VALIDATE CONSTRAINT, не блокирующей запись
+ALTER TABLE items ADD CONSTRAINT fk_items_request FOREIGN KEY (request_id) REFERENCES requests(id)
+    ON DELETE SET NULL NOT VALID;
@@ -0,0 +1,15 @@
+-- Transactional outbox: доменные события пишутся в транзакции изменения, ретранслятор читает их
+-- в порядке id и удаляет доставленные
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0
+);
+
+-- Таблица работает как очередь: строки постоянно вставляются и удаляются, и при порогах по умолчанию
+-- мёртвые версии строк копились бы между проходами autovacuum, замедляя чтение головы очереди
+ALTER TABLE outbox_events SET (autovacuum_vacuum_scale_factor = 0.0, autovacuum_vacuum_threshold = 1000);
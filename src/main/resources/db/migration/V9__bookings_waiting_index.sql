@@ -0,0 +1,3 @@
+-- Неподтверждённые бронирования по началу для фоновой отмены истёкших. Частичный индекс содержит только
+-- строки WAITING и остаётся маленьким. Построение CONCURRENTLY — вне транзакции (V9__bookings_waiting_index.sql.conf)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
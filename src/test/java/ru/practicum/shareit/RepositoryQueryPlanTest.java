@@ -0,0 +1,214 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Booking.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Прогоняет EXPLAIN по SQL каждого запроса репозиториев на заполненной базе и падает,
+ * если большая таблица читается целиком: полным сканированием или по индексу без условия
+ * на его первую колонку. Полнотекстовый поиск на PostgreSQL здесь не проверяется.
+ */
+@SpringBootTest
+class RepositoryQueryPlanTest {
+    private static final Set<String> LARGE_TABLES = Set.of("ITEMS", "BOOKINGS", "COMMENTS", "ITEM_BOOKING_POINTERS",
+            "REQUESTS");
+    private static final int USERS = 300;
+    private static final int ITEMS = 3_000;
+    private static final int BOOKINGS = 30_000;
+    // Комментарий H2 к источнику строк: /* PUBLIC.ИНДЕКС: условия */ или /* PUBLIC.ТАБЛИЦА.tableScan */
+    private static final Pattern SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+?)(\\.tableScan)?(?:: (.*?))?\\s*\\*/",
+            Pattern.DOTALL);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long userId;
+    private long itemId;
+
+    @BeforeEach
+    void seed() {
+        String marker = "plan-" + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (name, email) SELECT ?, ? || X || '@mail.ru' FROM SYSTEM_RANGE(1, ?)",
+                marker, marker, USERS);
+        userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE name = ?", Long.class, marker);
+        // id вещей идут подряд после занятого значения последовательности, которая затем сдвигается за них
+        long itemsBase = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR items_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "SELECT ? + X, ?, 'описание', TRUE, ? + MOD(X, ?) FROM SYSTEM_RANGE(1, ?)",
+                itemsBase, marker, userId, USERS, ITEMS);
+        jdbcTemplate.execute("ALTER SEQUENCE items_seq RESTART WITH " + (itemsBase + ITEMS + 50));
+        itemId = itemsBase + 1;
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, version) " +
+                "SELECT DATEADD('HOUR', X - ?, LOCALTIMESTAMP), DATEADD('HOUR', X - ? + 2, LOCALTIMESTAMP), " +
+                "? + MOD(X, ?), ? + MOD(X * 7, ?), " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)",
+                BOOKINGS / 2, BOOKINGS / 2, itemId, ITEMS, userId, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'отзыв', ? + MOD(X, ?), ? + MOD(X, ?), DATEADD('HOUR', -X, LOCALTIMESTAMP) " +
+                "FROM SYSTEM_RANGE(1, ?)", itemId, ITEMS, userId, USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO item_booking_pointers (item_id, refresh_at) " +
+                "SELECT id, DATEADD('HOUR', MOD(id, 100), LOCALTIMESTAMP) FROM items WHERE name = ?", marker);
+        jdbcTemplate.update("INSERT INTO requests (description, requestor_id, created) " +
+                "SELECT 'нужна вещь', ? + MOD(X, ?), DATEADD('MINUTE', -X, LOCALTIMESTAMP) FROM SYSTEM_RANGE(1, ?)",
+                userId, USERS, ITEMS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanLargeTables() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(1, 20);
+        List<Long> itemIds = List.of(itemId, itemId + 1, itemId + 2);
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        BookingFilter booker = BookingFilter.ofBooker(userId, now);
+        BookingFilter owner = BookingFilter.ofOwner(userId, now);
+        for (BookingState state : BookingState.values()) {
+            queries.put("findBookings booker " + state, () -> bookingRepository.findBookings(booker, state, page));
+            queries.put("findBookings owner " + state, () -> bookingRepository.findBookings(owner, state, page));
+            queries.put("findBookingsAfter booker " + state,
+                    () -> bookingRepository.findBookingsAfter(booker, state, now.plusYears(1), Long.MAX_VALUE, 20));
+            queries.put("findBookingsAfter owner " + state,
+                    () -> bookingRepository.findBookingsAfter(owner, state, now.plusYears(1), Long.MAX_VALUE, 20));
+        }
+        queries.put("streamBookings owner", () -> {
+            try (Stream<Booking> bookings = bookingRepository.streamBookings(owner, BookingState.ALL, 500)) {
+                return bookings.limit(20).count();
+            }
+        });
+        queries.put("countByState booker", () -> bookingRepository.countByState(booker));
+        queries.put("countByState owner", () -> bookingRepository.countByState(owner));
+        queries.put("findOverlappingBookings",
+                () -> bookingRepository.findOverlappingBookings(itemId, now, now.plusDays(1)));
+        queries.put("findStaleWaitingForUpdate",
+                () -> bookingRepository.findStaleWaitingForUpdate(now, 500));
+        queries.put("findApprovedBookingsEndingAfter",
+                () -> bookingRepository.findApprovedBookingsEndingAfter(itemId, now));
+        queries.put("findBookingsByBookerIdAndItemIdAndStatusAndEndBefore",
+                () -> bookingRepository.findBookingsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId,
+                        BookingStatus.APPROVED, now));
+        queries.put("findLastBooking", () -> bookingRepository.findLastBooking(itemId, now, PageRequest.ofSize(1)));
+        queries.put("findNextBooking", () -> bookingRepository.findNextBooking(itemId, now, PageRequest.ofSize(1)));
+        queries.put("findEarliestApprovedEndFrom", () -> bookingRepository.findEarliestApprovedEndFrom(itemId, now));
+        queries.put("findByIdIn", () -> bookingRepository.findByIdIn(List.of(1L, 2L)));
+        queries.put("findLastBookings", () -> bookingRepository.findLastBookings(itemIds, now));
+        queries.put("findNextBookings", () -> bookingRepository.findNextBookings(itemIds, now));
+        queries.put("findByOwnerId", () -> itemRepository.findByOwnerId(userId));
+        queries.put("findByIdForUpdate", () -> itemRepository.findByIdForUpdate(itemId));
+        queries.put("findByOwnerIdOrderByIdAsc", () -> itemRepository.findByOwnerIdOrderByIdAsc(userId, page));
+        queries.put("findByOwnerIdAndIdGreaterThanOrderByIdAsc",
+                () -> itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, itemId, page));
+        queries.put("findByIdGreaterThanOrderByIdAsc",
+                () -> itemRepository.findByIdGreaterThanOrderByIdAsc(itemId, page));
+        queries.put("findByRequestId", () -> itemRepository.findByRequestId(1L));
+        queries.put("findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(1L, 2L)));
+        queries.put("findByRequestorIdOrderByCreatedDescIdDesc",
+                () -> itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId));
+        queries.put("findByRequestorIdNotAndIdLessThanOrderByIdDesc first page",
+                () -> itemRequestRepository.findByRequestorIdNotAndIdLessThanOrderByIdDesc(userId, Long.MAX_VALUE,
+                        PageRequest.ofSize(20)));
+        queries.put("findByIdLessThanOrderByIdDesc",
+                () -> itemRequestRepository.findByIdLessThanOrderByIdDesc(Long.MAX_VALUE, PageRequest.ofSize(20)));
+        queries.put("findByRefreshAtLessThanOrderByRefreshAtAsc",
+                () -> pointersRepository.findByRefreshAtLessThanOrderByRefreshAtAsc(now, page));
+        queries.put("findByItemIdOrderByCreatedDesc", () -> commentRepository.findByItemIdOrderByCreatedDesc(itemId));
+        queries.put("findByItemIdInOrderByCreatedDesc",
+                () -> commentRepository.findByItemIdInOrderByCreatedDesc(itemIds));
+
+        Map<String, String[]> indexes = leadingIndexColumns();
+        List<String> violations = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            List<String> statements = CapturingStatementInspector.capture(() -> transactionTemplate.execute(
+                    status -> query.get()));
+            assertThat(statements).as(name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = explain(sql);
+                Matcher scan = SCAN.matcher(plan);
+                while (scan.find()) {
+                    String violation = violation(scan, indexes);
+                    if (violation != null) {
+                        violations.add(name + ": " + violation + "\n" + plan);
+                    }
+                }
+            }
+        });
+
+        assertThat(violations).isEmpty();
+    }
+
+    private String violation(Matcher scan, Map<String, String[]> indexes) {
+        String source = scan.group(1);
+        if (scan.group(2) != null) {
+            return LARGE_TABLES.contains(source) ? "полное сканирование " + source : null;
+        }
+        String[] tableAndColumn = indexes.get(source);
+        if (tableAndColumn == null || !LARGE_TABLES.contains(tableAndColumn[0])) {
+            return null;
+        }
+        String conditions = scan.group(3);
+        Pattern leading = Pattern.compile("(?<![\\w.])" + tableAndColumn[1] + "\\s*(=|<|>|IN\\b)");
+        if (conditions == null || !leading.matcher(conditions).find()) {
+            return "полный проход индекса " + source + " таблицы " + tableAndColumn[0];
+        }
+        return null;
+    }
+
+    private String explain(String sql) {
+        // Параметры не привязываются: H2 строит план по выражениям с ?
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), resultSet -> {
+            resultSet.next();
+            return resultSet.getString(1);
+        });
+    }
+
+    private Map<String, String[]> leadingIndexColumns() {
+        Map<String, String[]> indexes = new HashMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                        "WHERE TABLE_SCHEMA = 'PUBLIC' AND ORDINAL_POSITION = 1",
+                resultSet -> {
+                    indexes.put(resultSet.getString(1), new String[]{resultSet.getString(2), resultSet.getString(3)});
+                });
+        return indexes;
+    }
+}
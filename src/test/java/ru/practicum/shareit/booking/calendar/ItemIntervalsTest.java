@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemIntervalsTest {
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsIncludesBoundariesAndLongEarlierIntervals() {
+        ItemIntervals intervals = ItemIntervals.EMPTY
+                .with(1, day(10), day(12), now)
+                .with(2, day(1), day(30), now)
+                .with(3, day(40), day(41), now);
+
+        assertThat(intervals.overlaps(day(35), day(39))).isFalse();
+        assertThat(intervals.overlaps(day(30), day(31))).isTrue();
+        assertThat(intervals.overlaps(day(41), day(45))).isTrue();
+        assertThat(intervals.without(2, now).overlaps(day(20), day(25))).isFalse();
+        assertThat(intervals.without(2, now).overlaps(day(11), day(11))).isTrue();
+    }
+
+    @Test
+    void writesDropFinishedIntervals() {
+        ItemIntervals intervals = ItemIntervals.EMPTY
+                .with(1, day(1), day(2), now)
+                .with(2, day(5), day(6), now)
+                .with(3, day(7), day(8), day(3));
+
+        assertThat(intervals.size()).isEqualTo(2);
+        assertThat(intervals.overlaps(day(1), day(2))).isFalse();
+    }
+
+    private LocalDateTime day(int day) {
+        return now.plusDays(day);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingExporterTest {
+    @Autowired
+    private BookingExporter bookingExporter;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        User booker = createUser();
+        LocalDateTime start = LocalDateTime.now().minusDays(600).withNano(0);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 1_100; i++) {
+            Item item = itemRepository.save(new Item(null, "Шатёр " + i, "Банкетный", true, owner, null));
+            Booking.BookingStatus status = i % 3 == 0 ? Booking.BookingStatus.WAITING : Booking.BookingStatus.APPROVED;
+            bookings.add(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(5), item, booker, status,
+                    null));
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void exportStreamsEveryBookingOfStateInListOrder() throws IOException {
+        for (BookingState state : List.of(BookingState.ALL, BookingState.WAITING, BookingState.FUTURE)) {
+            List<BookingResponseDto> exported = export(state);
+
+            List<BookingResponseDto> listed = bookingService.getOwnerBookings(owner.getId(), state, 0, 2_000, null);
+            assertThat(exported).as(state.name())
+                    .extracting(BookingResponseDto::getId)
+                    .containsExactlyElementsOf(listed.stream().map(BookingResponseDto::getId).toList());
+            assertThat(exported).as(state.name()).isEqualTo(listed);
+        }
+        assertThat(export(BookingState.ALL)).hasSize(1_100);
+        assertThat(export(BookingState.WAITING)).hasSize(367);
+    }
+
+    @Test
+    void unknownOwnerIsRejectedBeforeStreaming() {
+        assertThatThrownBy(() -> bookingExporter.exportOwnerBookings(-1L, BookingState.ALL))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private List<BookingResponseDto> export(BookingState state) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.exportOwnerBookings(owner.getId(), state).writeTo(out);
+        String body = out.toString(StandardCharsets.UTF_8);
+        List<BookingResponseDto> bookings = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                bookings.add(objectMapper.readValue(line, BookingResponseDto.class));
+            }
+        }
+        assertThat(body).satisfiesAnyOf(text -> assertThat(text).isEmpty(), text -> assertThat(text).endsWith("\n"));
+        return bookings;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Отдельная база: в схеме H2 нет секций, колонка archived добавляется тестом, как её добавляет V10
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1",
+        "shareit.booking.archive.enabled=true",
+        "shareit.booking.archive.horizon=30d",
+        "shareit.booking.archive.batch-size=2"})
+class BookingArchiverTest {
+    @Autowired
+    private BookingArchiver archiver;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE bookings ADD COLUMN IF NOT EXISTS archived BOOLEAN DEFAULT FALSE NOT NULL");
+        User owner = createUser();
+        booker = createUser();
+        item = itemRepository.save(new Item(null, "Палатка", "Трёхместная", true, owner, null));
+    }
+
+    @Test
+    void completedBookingsOlderThanHorizonAreArchivedInBatches() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking approved = save(now.minusDays(60), Booking.BookingStatus.APPROVED);
+        Booking rejected = save(now.minusDays(50), Booking.BookingStatus.REJECTED);
+        Booking cancelled = save(now.minusDays(40), Booking.BookingStatus.CANCELLED);
+        Booking waiting = save(now.minusDays(60), Booking.BookingStatus.WAITING);
+        Booking recent = save(now.minusDays(10), Booking.BookingStatus.APPROVED);
+        double archivedBefore = archivedCount();
+        long batchesBefore = meterRegistry.get("shareit.bookings.archive.batch").timer().count();
+
+        archiver.archiveCompletedBookings();
+
+        assertThat(List.of(approved, rejected, cancelled)).allSatisfy(booking -> assertThat(archived(booking)).isTrue());
+        // Неподтверждённое сначала отменяет BookingLifecycleProcessor
+        assertThat(archived(waiting)).isFalse();
+        assertThat(archived(recent)).isFalse();
+        assertThat(archivedCount() - archivedBefore).isEqualTo(3);
+        // Порции 2 и 1
+        assertThat(meterRegistry.get("shareit.bookings.archive.batch").timer().count() - batchesBefore)
+                .isEqualTo(2);
+    }
+
+    @Test
+    void archivedBookingsStayInPastListing() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking old = save(now.minusDays(60), Booking.BookingStatus.APPROVED);
+        Booking recent = save(now.minusDays(10), Booking.BookingStatus.APPROVED);
+
+        archiver.archiveCompletedBookings();
+
+        assertThat(archived(old)).isTrue();
+        assertThat(bookingService.getUserBookings(booker.getId(), BookingState.PAST, 0, 10, null))
+                .extracting(BookingResponseDto::getId)
+                .containsExactly(recent.getId(), old.getId());
+    }
+
+    @Test
+    void rolledBackBatchIsNotCounted() {
+        Booking old = save(LocalDateTime.now().withNano(0).minusDays(60), Booking.BookingStatus.APPROVED);
+        double archivedBefore = archivedCount();
+        long batchesBefore = meterRegistry.get("shareit.bookings.archive.batch").timer().count();
+
+        // Порция выполняется во внешней транзакции и откатывается вместе с ней
+        transactionTemplate.executeWithoutResult(status -> {
+            archiver.archiveCompletedBookings();
+            status.setRollbackOnly();
+        });
+
+        assertThat(archived(old)).isFalse();
+        assertThat(archivedCount()).isEqualTo(archivedBefore);
+        assertThat(meterRegistry.get("shareit.bookings.archive.batch").timer().count()).isEqualTo(batchesBefore);
+        // Оставшееся бронирование не должно попасть в подсчёты других тестов
+        archiver.archiveCompletedBookings();
+    }
+
+    private double archivedCount() {
+        return meterRegistry.get("shareit.bookings.lifecycle").tag("action", "archived").counter().count();
+    }
+
+    private boolean archived(Booking booking) {
+        return jdbcTemplate.queryForObject("SELECT archived FROM bookings WHERE id = ?", Boolean.class,
+                booking.getId());
+    }
+
+    private Booking save(LocalDateTime start, Booking.BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, start.plusDays(2), item, booker, status, null));
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("Пользователь");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Отдельная база: другой размер порции меняет контекст, а он пересоздал бы схему общей testdb
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:lifecycle;DB_CLOSE_DELAY=-1",
+        "shareit.booking.lifecycle.batch-size=2"})
+class BookingLifecycleProcessorTest {
+    @Autowired
+    private BookingLifecycleProcessor processor;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        // Истёкшие бронирования предыдущих тестов не должны попасть в подсчёты
+        processor.expireStaleBookings();
+        User owner = createUser();
+        booker = createUser();
+        item = itemRepository.save(new Item(null, "Байдарка", "Двухместная", true, owner, null));
+    }
+
+    @Test
+    void staleWaitingBookingsAreCancelledInBatches() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Booking> stale = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            stale.add(save(now.minusHours(i), Booking.BookingStatus.WAITING));
+        }
+        Booking future = save(now.plusDays(1), Booking.BookingStatus.WAITING);
+        Booking approved = save(now.minusDays(1), Booking.BookingStatus.APPROVED);
+        double expiredBefore = expiredCount();
+        long batchesBefore = meterRegistry.get("shareit.bookings.lifecycle.batch").timer().count();
+
+        processor.expireStaleBookings();
+
+        assertThat(stale).allSatisfy(booking -> assertThat(status(booking)).isEqualTo(Booking.BookingStatus.CANCELLED));
+        assertThat(status(future)).isEqualTo(Booking.BookingStatus.WAITING);
+        assertThat(status(approved)).isEqualTo(Booking.BookingStatus.APPROVED);
+        assertThat(expiredCount() - expiredBefore).isEqualTo(5);
+        // Порции 2, 2 и 1
+        assertThat(meterRegistry.get("shareit.bookings.lifecycle.batch").timer().count() - batchesBefore)
+                .isEqualTo(3);
+    }
+
+    @Test
+    void bookingsLockedByAnotherNodeAreSkipped() throws Exception {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking locked = save(now.minusHours(1), Booking.BookingStatus.WAITING);
+        Booking free = save(now.minusHours(2), Booking.BookingStatus.WAITING);
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    entityManager.find(Booking.class, locked.getId(), LockModeType.PESSIMISTIC_WRITE);
+                    lockTaken.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(lockTaken.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            processor.expireStaleBookings();
+        } finally {
+            release.countDown();
+            otherNode.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(status(free)).isEqualTo(Booking.BookingStatus.CANCELLED);
+        assertThat(status(locked)).isEqualTo(Booking.BookingStatus.WAITING);
+        processor.expireStaleBookings();
+        assertThat(status(locked)).isEqualTo(Booking.BookingStatus.CANCELLED);
+    }
+
+    @Test
+    void rolledBackBatchIsNotCounted() {
+        Booking stale = save(LocalDateTime.now().withNano(0).minusHours(1), Booking.BookingStatus.WAITING);
+        double expiredBefore = expiredCount();
+        long batchesBefore = meterRegistry.get("shareit.bookings.lifecycle.batch").timer().count();
+
+        // Порция выполняется во внешней транзакции и откатывается вместе с ней
+        transactionTemplate.executeWithoutResult(status -> {
+            processor.expireStaleBookings();
+            status.setRollbackOnly();
+        });
+
+        assertThat(status(stale)).isEqualTo(Booking.BookingStatus.WAITING);
+        assertThat(expiredCount()).isEqualTo(expiredBefore);
+        assertThat(meterRegistry.get("shareit.bookings.lifecycle.batch").timer().count()).isEqualTo(batchesBefore);
+    }
+
+    private double expiredCount() {
+        return meterRegistry.get("shareit.bookings.lifecycle").tag("action", "expired").counter().count();
+    }
+
+    private Booking.BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+
+    private Booking save(LocalDateTime start, Booking.BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, start.plusDays(2), item, booker, status, null));
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("Пользователь");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userRepository.save(user);
+    }
+}
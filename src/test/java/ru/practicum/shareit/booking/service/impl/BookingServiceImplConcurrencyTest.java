@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+class BookingServiceImplConcurrencyTest {
+    private static final int WRITERS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentApprovalsNeverDoubleBookItem() throws Exception {
+        User owner = createUser();
+        Item item = itemRepository.save(new Item(null, "Байдарка", "Двухместная", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            // Все интервалы попарно пересекаются: подтвердить можно только одно бронирование
+            bookingIds.add(bookingRepository.save(new Booking(null, start.plusHours(i), start.plusDays(3).plusHours(i),
+                    item, createUser(), Booking.BookingStatus.WAITING, null)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.approveBooking(owner.getId(), bookingId, true);
+                    approved.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        executor.shutdown();
+
+        log.info("{} параллельных подтверждений за {} мс, {} операций/с", WRITERS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(WRITERS / (elapsedNanos / 1e9)));
+        assertThat(approved.get()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(WRITERS - 1);
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .filteredOn(booking -> booking.getStatus() == Booking.BookingStatus.APPROVED)
+                .hasSize(1);
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
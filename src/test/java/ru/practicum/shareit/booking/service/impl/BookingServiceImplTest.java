@@ -0,0 +1,230 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest
+class BookingServiceImplTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        booker = createUser();
+        item = itemRepository.save(new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 7; i++) {
+            // Бронирования с одинаковым началом проверяют порядок по id внутри одной даты
+            LocalDateTime bookingStart = start.plusDays(i / 2);
+            bookingRepository.save(new Booking(null, bookingStart, bookingStart.plusHours(1), item, booker,
+                    Booking.BookingStatus.WAITING, null));
+        }
+    }
+
+    @Test
+    void cursorPagesMatchOffsetPages() {
+        List<BookingResponseDto> offsetPages = new ArrayList<>();
+        List<BookingResponseDto> cursorPages = new ArrayList<>();
+        String cursor = null;
+        for (int from = 0; from < 8; from += 3) {
+            offsetPages.addAll(bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING, from, 3, null));
+            List<BookingResponseDto> page = from == 0
+                    ? bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING, 0, 3, null)
+                    : bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING, 0, 3, cursor);
+            cursorPages.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = BookingCursor.of(page.get(page.size() - 1)).encode();
+            }
+        }
+
+        assertThat(cursorPages).hasSize(7);
+        assertThat(cursorPages).extracting(BookingResponseDto::getId)
+                .containsExactlyElementsOf(offsetPages.stream().map(BookingResponseDto::getId).toList());
+        assertThat(bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 10, cursor)).isEmpty();
+    }
+
+    @Test
+    void createBookingRejectsIntervalOverlappingApprovedBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(20).withNano(0);
+        BookingResponseDto first = bookingService.createBooking(booker.getId(), request(start, start.plusDays(2)));
+        BookingResponseDto second = bookingService.createBooking(booker.getId(),
+                request(start.plusDays(1), start.plusDays(3)));
+
+        bookingService.approveBooking(owner.getId(), first.getId(), true);
+
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(),
+                request(start.plusDays(2), start.plusDays(4))))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(bookingService.createBooking(booker.getId(), request(start.plusDays(3), start.plusDays(4))))
+                .isNotNull();
+        assertThat(second.getStatus()).isEqualTo(Booking.BookingStatus.WAITING);
+    }
+
+    @Test
+    void cancelledApprovedBookingFreesItsInterval() {
+        LocalDateTime start = LocalDateTime.now().plusDays(60).withNano(0);
+        BookingResponseDto approved = bookingService.createBooking(booker.getId(), request(start, start.plusDays(2)));
+        bookingService.approveBooking(owner.getId(), approved.getId(), true);
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(), request(start, start.plusDays(1))))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThatThrownBy(() -> bookingService.cancelBooking(owner.getId(), approved.getId()))
+                .isInstanceOf(ForbiddenException.class);
+        BookingResponseDto cancelled = bookingService.cancelBooking(booker.getId(), approved.getId());
+
+        assertThat(cancelled.getStatus()).isEqualTo(Booking.BookingStatus.CANCELLED);
+        assertThat(bookingService.createBooking(booker.getId(), request(start, start.plusDays(1)))).isNotNull();
+        assertThatThrownBy(() -> bookingService.cancelBooking(booker.getId(), approved.getId()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void bookingCancelledOnAnotherNodeDoesNotBlockInterval() {
+        LocalDateTime start = LocalDateTime.now().plusDays(70).withNano(0);
+        BookingResponseDto approved = bookingService.createBooking(booker.getId(), request(start, start.plusDays(2)));
+        bookingService.approveBooking(owner.getId(), approved.getId(), true);
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(), request(start, start.plusDays(1))))
+                .isInstanceOf(BadRequestException.class);
+
+        // Другой узел отменил бронирование: календарь этого узла об этом не знает
+        jdbcTemplate.update("UPDATE bookings SET status = 'CANCELLED' WHERE id = ?", approved.getId());
+
+        assertThat(bookingService.createBooking(booker.getId(), request(start, start.plusDays(1)))).isNotNull();
+    }
+
+    @Test
+    void listingsLoadItemAndBookerInSingleQuery() {
+        User listedOwner = createUser();
+        User listedBooker = createUser();
+        LocalDateTime start = LocalDateTime.now().plusDays(40).withNano(0);
+        for (int i = 0; i < 120; i++) {
+            // Разные вещи и арендаторы: ленивые связи каждой записи были бы отдельными запросами
+            Item listedItem = itemRepository.save(new Item(null, "Вещь " + i, "Описание", true,
+                    i % 2 == 0 ? listedOwner : createUser(), null));
+            User bookingBooker = i % 3 == 0 ? listedBooker : createUser();
+            bookingRepository.save(new Booking(null, start.plusHours(i), start.plusHours(i + 1), listedItem,
+                    bookingBooker, Booking.BookingStatus.WAITING, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Вставка с IDENTITY не кладёт пользователя в кэш второго уровня: первая проверка существования
+        // шла бы в базу, поэтому пользователи читаются заранее
+        userRepository.findById(listedOwner.getId());
+        userRepository.findById(listedBooker.getId());
+
+        statistics.clear();
+        List<BookingResponseDto> ownerBookings = bookingService.getOwnerBookings(listedOwner.getId(), BookingState.ALL, 0, 100,
+                null);
+        long ownerStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<BookingResponseDto> userBookings = bookingService.getUserBookings(listedBooker.getId(), BookingState.FUTURE, 0, 100,
+                null);
+        long userStatements = statistics.getPrepareStatementCount();
+
+        assertThat(ownerBookings).hasSize(60)
+                .allSatisfy(booking -> assertThat(booking.getItem().getName()).startsWith("Вещь"));
+        assertThat(userBookings).hasSize(40)
+                .allSatisfy(booking -> assertThat(booking.getBooker().getId()).isEqualTo(listedBooker.getId()));
+        // Только сам список: существование пользователя проверяется по кэшу второго уровня
+        assertThat(ownerStatements).isEqualTo(1);
+        assertThat(userStatements).isEqualTo(1);
+    }
+
+    @Test
+    void ownerSummaryCountsEveryStateInSingleQuery() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker,
+                Booking.BookingStatus.APPROVED, null));
+        bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                Booking.BookingStatus.REJECTED, null));
+        bookingRepository.save(new Booking(null, now.minusDays(1), now.plusDays(1), item, booker,
+                Booking.BookingStatus.APPROVED, null));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Map<BookingState, Long> summary = bookingService.getOwnerBookingsSummary(owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(summary).containsExactly(
+                entry(BookingState.ALL, 10L),
+                entry(BookingState.CURRENT, 1L),
+                entry(BookingState.PAST, 2L),
+                entry(BookingState.FUTURE, 7L),
+                entry(BookingState.WAITING, 7L),
+                entry(BookingState.REJECTED, 1L));
+        for (BookingState state : BookingState.values()) {
+            assertThat(bookingService.getOwnerBookings(owner.getId(), state, 0, 20, null))
+                    .as(state.name()).hasSize(summary.get(state).intValue());
+        }
+        assertThat(bookingService.getOwnerBookingsSummary(createUser().getId())).containsValues(0L).hasSize(6);
+        // Проверка существования пользователя и агрегат
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    void unknownStateIsRejected() {
+        assertThat(BookingState.from("future")).isEqualTo(BookingState.FUTURE);
+        assertThatThrownBy(() -> BookingState.from("UNSUPPORTED_STATUS"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Unknown state: UNSUPPORTED_STATUS");
+    }
+
+    private BookingRequestDto request(LocalDateTime start, LocalDateTime end) {
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(end);
+        return request;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.CapturingStatementInspector;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ItemBatchImporterTest {
+    @Autowired
+    private ItemBatchImporter importer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("Прокат");
+        owner.setEmail(UUID.randomUUID() + "@mail.ru");
+        owner = userRepository.save(owner);
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedSeparatelyAndInsertedInBatches() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            body.append("{\"name\":\"Палатка ").append(i)
+                    .append("\",\"description\":\"Трёхместная\",\"available\":true}\n");
+        }
+        body.append("{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}\n");
+        body.append("{\"name\":\"Спальник\",\"description\":\"Летний\",\"available\":\"может быть\"}\n");
+        body.append("null\n");
+        body.append("{\"name\":\"Коврик\",\"description\":\"Туристический\",\"available\":false}\n");
+
+        List<List<ItemImportResultDto>> imports = new ArrayList<>();
+        List<String> statements = CapturingStatementInspector.capture(() -> imports.add(importItems(body.toString())));
+
+        List<ItemImportResultDto> imported = imports.get(0);
+        assertThat(imported).hasSize(1_204);
+        assertThat(imported).extracting(ItemImportResultDto::getIndex)
+                .containsExactlyElementsOf(range(1_204));
+        assertThat(imported.subList(0, 1_200)).allSatisfy(result -> assertThat(result.getId()).isNotNull());
+        assertThat(imported.get(1_200).getError()).isEqualTo("Название вещи не может быть пустым.");
+        assertThat(imported.get(1_201).getError()).startsWith("Некорректные данные вещи");
+        assertThat(imported.get(1_202).getError()).startsWith("Некорректные данные вещи");
+        assertThat(imported.get(1_203).getId()).isNotNull();
+        List<Item> items = itemRepository.findByOwnerId(owner.getId());
+        assertThat(items).hasSize(1_201);
+        // Порции 500, 500 и 201 вещь: без пакетов INSERT готовился бы для каждой вещи,
+        // с пакетами — один раз на порцию. nextval — один на блок из 50 id
+        assertThat(statements.stream().filter(sql -> sql.startsWith("insert into items")).count()).isEqualTo(3);
+        assertThat(statements.stream().filter(sql -> sql.contains("items_seq")).count()).isBetween(24L, 25L);
+    }
+
+    @Test
+    void jsonArrayIsImported() {
+        List<ItemImportResultDto> results = importItems("[" +
+                "{\"name\":\"Байдарка\",\"description\":\"Двухместная\",\"available\":true}," +
+                "{\"name\":\"Весло\",\"available\":true}," +
+                "{\"name\":\"Жилет\",\"description\":\"Спасательный\",\"available\":true}]");
+
+        assertThat(results).extracting(ItemImportResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(1).getError()).isEqualTo("Описание вещи не может быть пустым.");
+        assertThat(itemRepository.findAllById(List.of(results.get(0).getId(), results.get(2).getId())))
+                .extracting(Item::getName).containsExactlyInAnyOrder("Байдарка", "Жилет");
+    }
+
+    @Test
+    void malformedJsonStopsImportAfterSavedRows() {
+        List<ItemImportResultDto> results = importItems(
+                "{\"name\":\"Мангал\",\"description\":\"Складной\",\"available\":true}\n{\"name\":");
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).startsWith("Некорректный JSON");
+    }
+
+    @Test
+    void rowWithUnknownRequestIsRejectedWithoutFailingItsChunk() {
+        ItemRequest request = itemRequestRepository.save(
+                new ItemRequest(null, "Нужна палатка", owner, LocalDateTime.now()));
+
+        List<ItemImportResultDto> results = importItems(
+                "{\"name\":\"Палатка\",\"description\":\"Двухместная\",\"available\":true,\"requestId\":" +
+                        request.getId() + "}\n" +
+                "{\"name\":\"Тент\",\"description\":\"Три на три\",\"available\":true,\"requestId\":-1}\n" +
+                "{\"name\":\"Котелок\",\"description\":\"Два литра\",\"available\":true}");
+
+        assertThat(results).extracting(ItemImportResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(results.get(1).getError()).isEqualTo("Запрос с id -1 не найден");
+        assertThat(itemRepository.findByOwnerId(owner.getId()))
+                .extracting(Item::getName, Item::getRequestId)
+                .containsExactlyInAnyOrder(tuple("Палатка", request.getId()), tuple("Котелок", null));
+    }
+
+    @Test
+    void failedChunkReportsGenericError() {
+        List<ItemImportResultDto> results = importItems("{\"name\":\"" + "Ш".repeat(300) +
+                "\",\"description\":\"Слишком длинное название\",\"available\":true}");
+
+        assertThat(results).extracting(ItemImportResultDto::getError).containsExactly("Порция не сохранена");
+        assertThat(itemRepository.findByOwnerId(owner.getId())).isEmpty();
+    }
+
+    @Test
+    void unknownOwnerIsRejected() {
+        assertThatThrownBy(() -> importer.importItems(-1L, InputStream.nullInputStream()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private List<ItemImportResultDto> importItems(String body) {
+        try {
+            return importer.importItems(owner.getId(), new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+}
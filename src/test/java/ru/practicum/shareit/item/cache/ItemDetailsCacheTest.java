@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemDetailsCacheTest {
+    private final ItemDetailsCache cache = new ItemDetailsCache(
+            new ConcurrentMapCacheManager(CacheConfig.ITEM_DETAILS_CACHE));
+
+    @Test
+    void cardReadBeforeEvictionIsNotKept() {
+        // Запрос не нашёл карточку и прочитал вещь; изменение фиксируется и вытесняет запись до его put
+        long generation = cache.generation(1L);
+        ItemResponesDto stale = card("Старое название");
+        cache.evict(1L);
+
+        cache.put(1L, generation, stale);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void cardReadInCurrentGenerationIsKept() {
+        cache.evict(2L);
+        long generation = cache.generation(2L);
+        ItemResponesDto fresh = card("Новое название");
+
+        cache.put(2L, generation, fresh);
+
+        assertThat(cache.get(2L)).isSameAs(fresh);
+    }
+
+    private static ItemResponesDto card(String name) {
+        ItemResponesDto dto = new ItemResponesDto();
+        dto.setName(name);
+        return dto;
+    }
+}
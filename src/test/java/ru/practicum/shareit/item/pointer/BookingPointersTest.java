@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.pointer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.CapturingStatementInspector;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingPointersTest {
+    @Autowired
+    private BookingPointers bookingPointers;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        booker = createUser();
+        item = itemRepository.save(new Item(null, "Лодка", "Надувная", true, owner, null));
+    }
+
+    @Test
+    void approveStoresPointersThatOwnerViewReads() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withNano(0);
+        BookingResponseDto later = bookingService.createBooking(booker.getId(), request(start.plusDays(3)));
+        BookingResponseDto sooner = bookingService.createBooking(booker.getId(), request(start));
+
+        bookingService.approveBooking(owner.getId(), later.getId(), true);
+        bookingService.approveBooking(owner.getId(), sooner.getId(), true);
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getNextBookingId()).isEqualTo(sooner.getId());
+        assertThat(pointers.getLastBookingId()).isNull();
+        assertThat(pointers.getRefreshAt()).isEqualTo(start);
+        ItemResponesDto ownerView = itemService.getItem(owner.getId(), item.getId());
+        assertThat(ownerView.getNextBooking().getId()).isEqualTo(sooner.getId());
+        assertThat(ownerView.getNextBooking().getBooker().getId()).isEqualTo(booker.getId());
+    }
+
+    @Test
+    void sweepRecomputesPointersWhoseRefreshTimeHasPassed() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                Booking.BookingStatus.APPROVED, null));
+        // Указатель, сохранённый до окончания бронирования: тогда оно было следующим
+        pointersRepository.save(new ItemBookingPointers(item.getId(), null, past.getId(), now.minusDays(3)));
+
+        bookingPointers.sweep();
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getLastBookingId()).isEqualTo(past.getId());
+        assertThat(pointers.getNextBookingId()).isNull();
+        assertThat(pointers.getRefreshAt()).isNull();
+    }
+
+    @Test
+    void verifyRepairsPointersMissedByDirectWrites() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(0);
+        Booking next = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                Booking.BookingStatus.APPROVED, null));
+
+        BookingPointersReport check = bookingPointers.verify(false);
+        assertThat(check.getMismatched()).isPositive();
+        assertThat(check.getRepaired()).isZero();
+        assertThat(pointersRepository.findById(item.getId())).isEmpty();
+
+        BookingPointersReport rebuild = bookingPointers.verify(true);
+
+        assertThat(rebuild.getRepaired()).isEqualTo(rebuild.getMismatched());
+        assertThat(pointersRepository.findById(item.getId())).get()
+                .isEqualTo(new ItemBookingPointers(item.getId(), null, next.getId(), start));
+        assertThat(bookingPointers.verify(false).getMismatched()).isZero();
+    }
+
+    @Test
+    void verifyQueriesBookingsPerBatchNotPerItem() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 5; i++) {
+            Item other = itemRepository.save(new Item(null, "Лодка " + i, "Надувная", true, owner, null));
+            bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), other, booker,
+                    Booking.BookingStatus.APPROVED, null));
+        }
+        long batches = itemRepository.count() / 500 + 1;
+
+        List<String> statements = CapturingStatementInspector.capture(() -> bookingPointers.verify(false));
+
+        assertThat(statements.stream().filter(sql -> sql.contains("from bookings")).count())
+                .isEqualTo(3 * batches);
+        assertThat(statements).noneMatch(sql -> sql.contains("for update"));
+    }
+
+    private BookingRequestDto request(LocalDateTime start) {
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(start.plusDays(1));
+        return request;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
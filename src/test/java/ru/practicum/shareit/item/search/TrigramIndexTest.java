@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+    private static final String ALPHABET = "дрельШУРУПаб ";
+
+    private final Random random = new Random(42);
+
+    @Test
+    void searchMatchesSubstringScanAfterUpdatesAndRemovals() {
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, String[]> expected = new TreeMap<>();
+        for (long id = 1; id <= 500; id++) {
+            put(index, expected, id);
+        }
+        for (int i = 0; i < 300; i++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextBoolean()) {
+                put(index, expected, id);
+            } else {
+                index.remove(id);
+                expected.remove(id);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 500; i++) {
+            String query = randomText(1 + random.nextInt(5));
+            assertThat(index.search(query, 0, Integer.MAX_VALUE))
+                    .as("запрос '%s'", query)
+                    .containsExactly(scan(expected, query).stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    @Test
+    void searchSkipsOffsetMatches() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, "Дрель " + id, "Ударная");
+        }
+        index.put(11, "Молоток", "Без дрели");
+
+        assertThat(index.search("ДРЕЛ", 3, 4)).containsExactly(4, 5, 6, 7);
+        assertThat(index.search("дрел", 8, 4)).containsExactly(9, 10, 11);
+        assertThat(index.search("пила", 0, 4)).isEmpty();
+    }
+
+    private void put(TrigramIndex index, Map<Long, String[]> expected, long id) {
+        String name = randomText(3 + random.nextInt(10));
+        String description = randomText(random.nextInt(30));
+        index.put(id, name, description);
+        expected.put(id, new String[]{name, description});
+    }
+
+    private List<Long> scan(Map<Long, String[]> documents, String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>();
+        documents.forEach((id, text) -> {
+            if (text[0].toLowerCase(Locale.ROOT).contains(lower) || text[1].toLowerCase(Locale.ROOT).contains(lower)) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    private String randomText(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.item.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureObservability
+class ItemServiceImplTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = createUser();
+    }
+
+    @Test
+    void getUserItemsIssuesConstantNumberOfStatements() {
+        User smallOwner = createOwnerWithItems(2);
+        User largeOwner = createOwnerWithItems(20);
+
+        statistics.clear();
+        List<ItemResponesDto> smallResult = itemService.getUserItems(smallOwner.getId(), 0, 100, null);
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<ItemResponesDto> largeResult = itemService.getUserItems(largeOwner.getId(), 0, 100, null);
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallResult).hasSize(2);
+        assertThat(largeResult).hasSize(20);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void getUserItemsFillsBookingsAndComments() {
+        User owner = createOwnerWithItems(3);
+
+        List<ItemResponesDto> result = itemService.getUserItems(owner.getId(), 0, 10, null);
+
+        assertThat(result).hasSize(3).allSatisfy(dto -> {
+            assertThat(dto.getComments()).hasSize(1);
+            assertThat(dto.getComments().get(0).getAuthorName()).isEqualTo(booker.getName());
+            assertThat(dto.getLastBooking()).isNotNull();
+            assertThat(dto.getLastBooking().getEnd()).isBefore(LocalDateTime.now());
+            assertThat(dto.getLastBooking().getBooker().getId()).isEqualTo(booker.getId());
+            assertThat(dto.getNextBooking()).isNotNull();
+            assertThat(dto.getNextBooking().getStart()).isAfter(LocalDateTime.now());
+        });
+    }
+
+    @Test
+    void getUserItemsPagesByCursor() {
+        User owner = createOwnerWithItems(5);
+
+        List<ItemResponesDto> firstPage = itemService.getUserItems(owner.getId(), 0, 2, null);
+        List<ItemResponesDto> secondPage = itemService.getUserItems(owner.getId(), 0, 2,
+                firstPage.get(1).getId());
+        List<ItemResponesDto> offsetPage = itemService.getUserItems(owner.getId(), 2, 2, null);
+        List<ItemResponesDto> lastPage = itemService.getUserItems(owner.getId(), 0, 2,
+                secondPage.get(1).getId());
+
+        assertThat(secondPage).extracting(ItemResponesDto::getId)
+                .containsExactlyElementsOf(offsetPage.stream().map(ItemResponesDto::getId).toList());
+        assertThat(secondPage.get(0).getId()).isGreaterThan(firstPage.get(1).getId());
+        assertThat(lastPage).hasSize(1);
+    }
+
+    @Test
+    void searchItemsRanksNameMatchesFirstAndFollowsUpdates() {
+        User owner = createUser();
+        ItemResponesDto inDescription = itemService.addItem(owner.getId(),
+                new ItemRequestDto("Набор бит", "Подходит к любому шуруповёрту", true, null));
+        ItemResponesDto inName = itemService.addItem(owner.getId(),
+                new ItemRequestDto("Шуруповёрт", "Аккумуляторный, две батареи", true, null));
+
+        assertThat(itemService.searchItems("ШУРУП", 0, 10)).extracting(ItemResponesDto::getId)
+                .containsExactly(inName.getId(), inDescription.getId());
+
+        itemService.updateItem(owner.getId(), inName.getId(), new ItemRequestDto(null, null, false, null));
+
+        assertThat(itemService.searchItems("шуруп", 0, 10)).extracting(ItemResponesDto::getId)
+                .containsExactly(inDescription.getId());
+        assertThat(itemService.searchItems("шуруп батареи", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchIndexIgnoresRolledBackUpdate() {
+        User owner = createUser();
+        ItemResponesDto item = itemService.addItem(owner.getId(),
+                new ItemRequestDto("Стремянка", "Алюминиевая, шесть ступеней", true, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.updateItem(owner.getId(), item.getId(), new ItemRequestDto("Перфоратор", null, null, null));
+            status.setRollbackOnly();
+        });
+
+        assertThat(itemService.searchItems("перфоратор", 0, 10)).isEmpty();
+        assertThat(itemService.searchItems("стремянка", 0, 10)).extracting(ItemResponesDto::getId)
+                .containsExactly(item.getId());
+    }
+
+    @Test
+    void getItemServesNonOwnerReadsFromCacheUntilItemChanges() {
+        User owner = createUser();
+        Long itemId = itemService.addItem(owner.getId(),
+                new ItemRequestDto("Палатка", "Трёхместная", true, null)).getId();
+        LocalDateTime now = LocalDateTime.now();
+        createBooking(itemRepository.findById(itemId).orElseThrow(), now.minusDays(3), now.minusDays(2));
+
+        assertThat(itemService.getItem(booker.getId(), itemId).getComments()).isEmpty();
+        statistics.clear();
+        ItemResponesDto cached = itemService.getItem(booker.getId(), itemId);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(cached.getLastBooking()).isNull();
+        assertThat(itemService.getItem(owner.getId(), itemId).getLastBooking()).isNotNull();
+        assertThat(cached.getLastBooking()).isNull();
+
+        CommentDto comment = new CommentDto();
+        comment.setText("Не протекает");
+        itemService.addComment(booker.getId(), itemId, comment);
+        itemService.updateItem(owner.getId(), itemId, new ItemRequestDto("Палатка 3", null, null, null));
+
+        ItemResponesDto updated = itemService.getItem(booker.getId(), itemId);
+        assertThat(updated.getName()).isEqualTo("Палатка 3");
+        assertThat(updated.getComments()).extracting(CommentResponseDto::getText).containsExactly("Не протекает");
+        // Изменение результата вызывающим не попадает в кэш
+        updated.setName("Подменено");
+        updated.getComments().get(0).setText("Подменено");
+        ItemResponesDto again = itemService.getItem(booker.getId(), itemId);
+        assertThat(again.getName()).isEqualTo("Палатка 3");
+        assertThat(again.getComments()).extracting(CommentResponseDto::getText).containsExactly("Не протекает");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.ITEM_DETAILS_CACHE)
+                .tag("result", "hit").functionCounter().count()).isPositive();
+    }
+
+    private User createOwnerWithItems(int count) {
+        User owner = createUser();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(new Item(null, "Дрель " + i, "Аккумуляторная дрель", true, owner, null));
+            createBooking(item, now.minusDays(10), now.minusDays(9));
+            createBooking(item, now.minusDays(5), now.minusDays(4));
+            createBooking(item, now.plusDays(4), now.plusDays(5));
+            createBooking(item, now.plusDays(9), now.plusDays(10));
+            commentRepository.save(new Comment(null, "Отличная дрель", item, booker, now.minusDays(3)));
+        }
+        return owner;
+    }
+
+    private void createBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(new Booking(null, start, end, item, booker, Booking.BookingStatus.APPROVED, null));
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
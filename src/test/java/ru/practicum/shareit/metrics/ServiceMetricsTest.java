@@ -0,0 +1,112 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Отдельная база: контекст с другим веб-окружением пересоздал бы схему общей testdb
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+                "management.endpoints.web.exposure.include=*"})
+@AutoConfigureObservability
+class ServiceMetricsTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // HttpURLConnection по умолчанию не отправляет PATCH
+        rest.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+    }
+
+    @Test
+    void serviceCallsAndRequestsArePublishedAsMeters() {
+        long ownerId = createUser();
+        long bookerId = createUser();
+        Map<?, ?> item = post("/items", ownerId,
+                Map.of("name", "Снегоступы", "description", "Алюминиевые", "available", true));
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        Map<?, ?> booking = post("/bookings", bookerId, Map.of("itemId", item.get("id"),
+                "start", start.toString(), "end", start.plusDays(1).toString()));
+        ResponseEntity<Map> approved = rest.exchange("/bookings/" + booking.get("id") + "?approved=true",
+                HttpMethod.PATCH, new HttpEntity<>(headers(ownerId)), Map.class);
+        ResponseEntity<Object[]> search = rest.getForEntity("/items/search?text=снегоступы", Object[].class);
+
+        assertThat(approved.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(search.getBody()).hasSize(1);
+        Timer searchTimer = meterRegistry.get("shareit.service")
+                .tag("class", "ru.practicum.shareit.item.service.impl.ItemServiceImpl")
+                .tag("method", "searchItems")
+                .timer();
+        assertThat(searchTimer.count()).isEqualTo(1);
+        assertThat(searchTimer.takeSnapshot().percentileValues()).hasSize(3);
+        assertThat(meterRegistry.get("shareit.service").tag("method", "approveBooking").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.bookings").tag("outcome", "created").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.bookings").tag("outcome", "approved").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.bookings").tag("outcome", "conflict").counter().count()).isZero();
+        assertThat(meterRegistry.get("shareit.search.queries").tag("result", "found").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.http.sql.statements")
+                .tags("method", "PATCH", "uri", "/bookings/{bookingId}", "status", "200")
+                .summary().max()).isPositive();
+        assertThat(meterRegistry.get("shareit.http.sql.time").tag("uri", "/items").timer().count()).isEqualTo(1);
+
+        String scrape = rest.getForObject("/actuator/prometheus", String.class);
+        assertThat(scrape)
+                .contains("shareit_service_seconds_bucket{")
+                .contains("shareit_bookings_total{outcome=\"rejected\"}")
+                .contains("shareit_search_queries_total{engine=\"memory\",result=\"found\"}")
+                .contains("shareit_http_sql_statements_count{")
+                .contains("shareit_http_sql_time_seconds_bucket{");
+    }
+
+    @Test
+    void bookingPointersEndpointIsNotExposedOverHttp() {
+        // Сверка указателей обходит все вещи: даже при публикации всех точек она доступна только по JMX
+        assertThat(rest.getForObject("/actuator", String.class))
+                .contains("/actuator/prometheus")
+                .doesNotContain("bookingpointers");
+        assertThat(rest.getForEntity("/actuator/bookingpointers", String.class).getStatusCode().is2xxSuccessful())
+                .isFalse();
+        assertThat(rest.postForEntity("/actuator/bookingpointers", null, String.class).getStatusCode()
+                .is2xxSuccessful()).isFalse();
+    }
+
+    private long createUser() {
+        Map<?, ?> user = rest.postForObject("/users",
+                Map.of("name", "user", "email", UUID.randomUUID() + "@mail.ru"), Map.class);
+        return ((Number) user.get("id")).longValue();
+    }
+
+    private Map<?, ?> post(String path, long userId, Map<String, ?> body) {
+        ResponseEntity<Map> response = rest.postForEntity(path, new HttpEntity<>(body, headers(userId)), Map.class);
+        assertThat(response.getStatusCode()).as(path).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Отдельная база: контекст с другими свойствами пересоздал бы схему общей testdb
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlmonitor;DB_CLOSE_DELAY=-1",
+        "shareit.sql.monitor.max-statements-per-request=2",
+        "shareit.sql.monitor.slow-statement=0ms"})
+@AutoConfigureMockMvc
+class SqlMonitorTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    // События проверяются в памяти, а не в выводе консоли: кириллица в нём зависит от кодировки платформы
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        loggers().forEach(logger -> logger.addAppender(appender));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loggers().forEach(logger -> logger.detachAppender(appender));
+        appender.stop();
+    }
+
+    @Test
+    void requestOverThresholdIsCountedAndLoggedWithStatements() throws Exception {
+        User owner = new User();
+        owner.setName("Прокат");
+        owner.setEmail(UUID.randomUUID() + "@mail.ru");
+        owner = userRepository.save(owner);
+        itemRepository.save(new Item(null, "Тент", "Три на шесть", true, owner, null));
+
+        long ownerId = owner.getId();
+
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("shareit.http.sql.excessive").tags("method", "GET", "uri", "/items")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.http.sql.statements").tag("uri", "/items").summary().max())
+                .isGreaterThan(2);
+        assertThat(appender.list.stream().map(ILoggingEvent::getFormattedMessage))
+                .anySatisfy(message -> assertThat(message)
+                        .contains("GET /items выполнил")
+                        .contains("при пороге 2; чаще всего"))
+                // Медленные операторы пишутся со значениями параметров: здесь — id владельца
+                .anySatisfy(message -> assertThat(message).containsPattern(
+                        "Медленный SQL: \\d+ мс, select .+ from items .+ параметры \\[1=" + ownerId));
+        assertThat(meterRegistry.get("shareit.sql.slow").counter().count()).isPositive();
+    }
+
+    private static List<Logger> loggers() {
+        return List.of((Logger) LoggerFactory.getLogger(SqlMetricsFilter.class),
+                (Logger) LoggerFactory.getLogger(SqlMonitorListener.class));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.migration;
+
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchedBackfillMigrationTest {
+
+    @Test
+    void backfillsAllRowsInBatchesAndRunsFinishingDdl() throws Exception {
+        // Строк больше, чем помещается в одну порцию
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:backfill");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE rows_to_fill (id BIGINT PRIMARY KEY, flag INT)");
+            statement.execute("INSERT INTO rows_to_fill (id) SELECT X FROM SYSTEM_RANGE(1, 2500)");
+            FlagMigration migration = new FlagMigration();
+
+            migration.migrate(context(connection));
+
+            ResultSet unfilled = statement.executeQuery("SELECT COUNT(*) FROM rows_to_fill WHERE flag IS NULL");
+            unfilled.next();
+            assertThat(unfilled.getLong(1)).isZero();
+            ResultSet nullable = statement.executeQuery("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                    "WHERE TABLE_NAME = 'ROWS_TO_FILL' AND COLUMN_NAME = 'FLAG'");
+            nullable.next();
+            assertThat(nullable.getString(1)).isEqualTo("NO");
+            assertThat(migration.canExecuteInTransaction()).isFalse();
+        }
+    }
+
+    private static Context context(Connection connection) {
+        return new Context() {
+            @Override
+            public Configuration getConfiguration() {
+                return null;
+            }
+
+            @Override
+            public Connection getConnection() {
+                return connection;
+            }
+        };
+    }
+
+    private static class FlagMigration extends BatchedBackfillMigration {
+        FlagMigration() {
+            super("99", "test backfill", 800);
+        }
+
+        @Override
+        protected List<String> prepare() {
+            return List.of("ALTER TABLE rows_to_fill ALTER COLUMN flag SET DEFAULT 0");
+        }
+
+        @Override
+        protected String batchUpdate() {
+            return "UPDATE rows_to_fill SET flag = 1 WHERE id IN " +
+                   "(SELECT id FROM rows_to_fill WHERE flag IS NULL LIMIT ?)";
+        }
+
+        @Override
+        protected List<String> finish() {
+            return List.of("ALTER TABLE rows_to_fill ALTER COLUMN flag SET NOT NULL");
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponesDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Отдельная база: дополнительный слушатель меняет контекст, а он пересоздал бы схему общей testdb
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "shareit.outbox.retry-delay=3s",
+        "shareit.outbox.max-attempts=2"})
+@Import(OutboxRelayTest.RecordingListener.class)
+class OutboxRelayTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private RecordingListener listener;
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    private ItemResponesDto item;
+
+    @BeforeEach
+    void setUp() {
+        relay.drain();
+        // Отложенные события предыдущих тестов сами не уйдут
+        outboxEventRepository.deleteAll();
+        listener.received.clear();
+        listener.failing.clear();
+        owner = createUser();
+        booker = createUser();
+        item = itemService.addItem(owner.getId(), new ItemRequestDto("Палатка", "Трёхместная", true, null));
+    }
+
+    @Test
+    void committedChangesAreDeliveredInOrderPerAggregate() {
+        BookingResponseDto booking = createBooking(10);
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        itemService.updateItem(owner.getId(), item.getId(), new ItemRequestDto(null, null, false, null));
+        // Отклонённое изменение не оставляет события: вещь уже недоступна
+        assertThatThrownBy(() -> createBooking(20)).isInstanceOf(BadRequestException.class);
+
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(
+                        tuple(DomainEventType.ITEM_CREATED, item.getId()),
+                        tuple(DomainEventType.BOOKING_CREATED, booking.getId()),
+                        tuple(DomainEventType.BOOKING_APPROVED, booking.getId()),
+                        tuple(DomainEventType.ITEM_UPDATED, item.getId()));
+        assertThat(listener.received.get(2).getPayload().get("status").asText()).isEqualTo("APPROVED");
+        assertThat(listener.received.get(3).getPayload().get("available").asBoolean()).isFalse();
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(relay.lagMillis()).isZero();
+    }
+
+    @Test
+    void commentHoldsItemSoConcurrentUpdateIsPublishedAfterIt() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2),
+                itemRepository.findById(item.getId()).orElseThrow(), booker, Booking.BookingStatus.APPROVED, null));
+        relay.drain();
+        listener.received.clear();
+        CommentDto comment = new CommentDto();
+        comment.setText("Не протекает");
+
+        CompletableFuture<?>[] update = new CompletableFuture<?>[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.addComment(booker.getId(), item.getId(), comment);
+            update[0] = CompletableFuture.runAsync(() -> itemService.updateItem(owner.getId(), item.getId(),
+                    new ItemRequestDto("Палатка 2", null, null, null)));
+            // Изменение вещи ждёт коммита комментария и получает id события после него
+            assertThat(update[0]).failsWithin(500, TimeUnit.MILLISECONDS)
+                    .withThrowableOfType(TimeoutException.class);
+        });
+        update[0].get(10, TimeUnit.SECONDS);
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(
+                        tuple(DomainEventType.COMMENT_ADDED, item.getId()),
+                        tuple(DomainEventType.ITEM_UPDATED, item.getId()));
+    }
+
+    @Test
+    void failedEventHoldsBackLaterEventsOfItsAggregateOnly() throws InterruptedException {
+        relay.drain();
+        listener.received.clear();
+        BookingResponseDto failing = createBooking(30);
+        bookingService.approveBooking(owner.getId(), failing.getId(), false);
+        BookingResponseDto other = createBooking(40);
+        listener.failing.add(failing.getId());
+
+        relay.drain();
+        Thread.sleep(20);
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(tuple(DomainEventType.BOOKING_CREATED, other.getId()));
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType, OutboxEvent::getAttempts)
+                .containsExactly(tuple(DomainEventType.BOOKING_CREATED, 1), tuple(DomainEventType.BOOKING_REJECTED, 0));
+        assertThat(relay.lagMillis()).isGreaterThanOrEqualTo(20);
+
+        listener.failing.clear();
+        // Повтор — не раньше retry-delay
+        relay.drain();
+        assertThat(listener.received).hasSize(1);
+        Thread.sleep(3100);
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(
+                        tuple(DomainEventType.BOOKING_CREATED, other.getId()),
+                        tuple(DomainEventType.BOOKING_CREATED, failing.getId()),
+                        tuple(DomainEventType.BOOKING_REJECTED, failing.getId()));
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void fullBatchOfFailingAggregatesDoesNotStallOthers() {
+        relay.drain();
+        listener.received.clear();
+        // Целая порция (batch-size по умолчанию — 500) событий агрегатов, доставка которых падает
+        List<Long> failingIds = LongStream.range(1_000_000, 1_000_500).boxed().toList();
+        listener.failing.addAll(failingIds);
+        transactionTemplate.executeWithoutResult(status ->
+                domainEventPublisher.publishAll(DomainEventType.BOOKING_CREATED, failingIds, id -> id));
+        BookingResponseDto healthy = createBooking(50);
+
+        relay.drain();
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(tuple(DomainEventType.BOOKING_CREATED, healthy.getId()));
+    }
+
+    @Test
+    void eventIsParkedAfterMaxAttemptsAndHoldsItsAggregate() throws InterruptedException {
+        relay.drain();
+        listener.received.clear();
+        double parkedBefore = meterRegistry.get("shareit.outbox.events").tag("result", "parked").counter().count();
+        BookingResponseDto failing = createBooking(60);
+        bookingService.approveBooking(owner.getId(), failing.getId(), false);
+        listener.failing.add(failing.getId());
+
+        // Вторая попытка — через retry-delay, после неё событие откладывается
+        relay.drain();
+        Thread.sleep(3100);
+        relay.drain();
+        listener.failing.clear();
+        BookingResponseDto other = createBooking(70);
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(tuple(DomainEventType.BOOKING_CREATED, other.getId()));
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType, OutboxEvent::getAttempts, OutboxEvent::isParked)
+                .containsExactly(tuple(DomainEventType.BOOKING_CREATED, 2, true),
+                        tuple(DomainEventType.BOOKING_REJECTED, 0, false));
+        assertThat(meterRegistry.get("shareit.outbox.events").tag("result", "parked").counter().count()
+                   - parkedBefore).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.outbox.parked").gauge().value()).isEqualTo(1);
+        // Отложенный агрегат ждёт разбора и не считается отставанием
+        assertThat(relay.lagMillis()).isZero();
+
+        // Разбор: сброс попыток возвращает событие и следующие за ним в доставку
+        OutboxEvent parked = outboxEventRepository.findAll().get(0);
+        parked.setParked(false);
+        parked.setAttempts(0);
+        parked.setNextAttemptAt(null);
+        outboxEventRepository.save(parked);
+        relay.drain();
+
+        assertThat(listener.received)
+                .extracting(DomainEvent::getType, DomainEvent::getAggregateId)
+                .containsExactly(
+                        tuple(DomainEventType.BOOKING_CREATED, other.getId()),
+                        tuple(DomainEventType.BOOKING_CREATED, failing.getId()),
+                        tuple(DomainEventType.BOOKING_REJECTED, failing.getId()));
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private BookingResponseDto createBooking(int daysFromNow) {
+        return bookingService.createBooking(booker.getId(), request(daysFromNow));
+    }
+
+    private BookingRequestDto request(int daysFromNow) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysFromNow).withNano(0);
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(start.plusDays(1));
+        return request;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("Пользователь");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userRepository.save(user);
+    }
+
+    @TestComponent
+    static class RecordingListener implements DomainEventListener {
+        private final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+        private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            if (event.getType().getAggregateType().equals(DomainEventType.BOOKING)
+                && failing.contains(event.getAggregateId())) {
+                throw new IllegalStateException("Слушатель недоступен");
+            }
+            received.add(event);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Отдельная база: контекст с другим веб-окружением пересоздал бы схему общей testdb
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:requestmatching;DB_CLOSE_DELAY=-1")
+class RequestMatcherTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void ownerReceivesMatchingRequestOverSse() throws Exception {
+        long ownerId = createUser();
+        long requestorId = createUser();
+        Map<?, ?> item = post("/items", ownerId,
+                Map.of("name", "Палатка трёхместная", "description", "С тамбуром", "available", true));
+        post("/items", ownerId, Map.of("name", "Котелок", "description", "Походный", "available", true));
+
+        HttpResponse<Stream<String>> events = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/requests/subscribe"))
+                        .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                        .header("Accept", "text/event-stream")
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(events.statusCode()).isEqualTo(200);
+        Iterator<String> lines = events.body().iterator();
+
+        Map<?, ?> request = post("/requests", requestorId, Map.of("description", "Нужна палатка на выходные"));
+
+        String data = CompletableFuture.supplyAsync(() -> {
+            boolean match = false;
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.equals("event:" + RequestNotificationHub.MATCH_EVENT)) {
+                    match = true;
+                } else if (match && line.startsWith("data:")) {
+                    return line;
+                }
+            }
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+        events.body().close();
+
+        assertThat(data)
+                .contains("\"requestId\":" + request.get("id"))
+                .contains("\"id\":" + item.get("id"))
+                .doesNotContain("Котелок");
+    }
+
+    @Test
+    void subscribeRequiresExistingUser() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "999999");
+        ResponseEntity<String> response = rest.exchange("/requests/subscribe",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private long createUser() {
+        Map<?, ?> user = rest.postForObject("/users",
+                Map.of("name", "Пользователь", "email", UUID.randomUUID() + "@example.com"), Map.class);
+        return ((Number) user.get("id")).longValue();
+    }
+
+    private Map<?, ?> post(String path, long userId, Map<String, ?> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        ResponseEntity<Map> response = rest.postForEntity(path, new HttpEntity<>(body, headers), Map.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(path).isTrue();
+        return response.getBody();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestNotificationHubTest {
+    @Test
+    void subscriberThatFallsBehindIsDisconnected() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Задачи отправки не выполняются: клиент «не читает», и события копятся в очереди
+        RequestNotificationHub hub = new RequestNotificationHub(task -> {
+        }, meterRegistry, 2, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        hub.subscribe(1L);
+
+        for (long requestId = 1; requestId <= 3; requestId++) {
+            hub.publish(1L, new RequestMatchDto(requestId, "Нужна палатка", 2L, List.of()));
+        }
+
+        assertThat(hub.isSubscribed(1L)).isFalse();
+        assertThat(meterRegistry.get("shareit.requests.notifications").tag("result", "queued").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("shareit.requests.notifications").tag("result", "overflow").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.requests.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void subscriberWhoseSendHangsIsDisconnectedAfterWriteTimeout() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Отправка поставлена в пул, но не завершается: запись в сокет клиента зависла
+        RequestNotificationHub hub = new RequestNotificationHub(task -> {
+        }, meterRegistry, 10, Duration.ofMinutes(1), Duration.ofMillis(50));
+        hub.subscribe(1L);
+        hub.publish(1L, new RequestMatchDto(1L, "Нужна палатка", 2L, List.of()));
+
+        hub.heartbeat();
+        assertThat(hub.isSubscribed(1L)).isTrue();
+
+        Thread.sleep(100);
+        hub.heartbeat();
+
+        assertThat(hub.isSubscribed(1L)).isFalse();
+        assertThat(meterRegistry.get("shareit.requests.notifications").tag("result", "stalled").counter().count())
+                .isEqualTo(1);
+    }
+}
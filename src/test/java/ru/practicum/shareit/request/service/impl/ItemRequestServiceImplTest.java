@@ -0,0 +1,130 @@
+package ru.practicum.shareit.request.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ItemRequestServiceImplTest {
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getUserRequestsIssuesConstantNumberOfStatements() {
+        User smallRequestor = createRequestorWithAnsweredRequests(2);
+        User largeRequestor = createRequestorWithAnsweredRequests(20);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemRequestResponseDto> smallResult = itemRequestService.getUserRequests(smallRequestor.getId());
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<ItemRequestResponseDto> largeResult = itemRequestService.getUserRequests(largeRequestor.getId());
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallResult).hasSize(2);
+        assertThat(largeResult).hasSize(20).allSatisfy(request -> assertThat(request.getItems())
+                .extracting(ItemAnswerDto::getName)
+                .containsExactlyInAnyOrder("Ответ на " + request.getDescription(),
+                        "Ещё ответ на " + request.getDescription()));
+        assertThat(largeResult.get(0).getId()).isGreaterThan(largeResult.get(19).getId());
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void otherUsersRequestsPageByCursorAndSkipOwnRequests() {
+        User reader = createUser();
+        itemRequestService.addRequest(reader.getId(), request("Свой запрос"));
+        for (int i = 0; i < 5; i++) {
+            itemRequestService.addRequest(createUser().getId(), request("Чужой запрос " + i));
+        }
+
+        List<ItemRequestResponseDto> offsetPages = new ArrayList<>();
+        List<ItemRequestResponseDto> cursorPages = new ArrayList<>();
+        Long after = null;
+        for (int from = 0; from < 6; from += 2) {
+            offsetPages.addAll(itemRequestService.getOtherUsersRequests(reader.getId(), from, 2, null));
+            List<ItemRequestResponseDto> page = itemRequestService.getOtherUsersRequests(reader.getId(), 0, 2, after);
+            cursorPages.addAll(page);
+            after = page.get(page.size() - 1).getId();
+        }
+
+        assertThat(cursorPages).hasSize(6)
+                .noneMatch(request -> request.getRequestorId().equals(reader.getId()))
+                .extracting(ItemRequestResponseDto::getId)
+                .containsExactlyElementsOf(offsetPages.stream().map(ItemRequestResponseDto::getId).toList())
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(cursorPages.subList(0, 5)).extracting(ItemRequestResponseDto::getDescription)
+                .containsExactly("Чужой запрос 4", "Чужой запрос 3", "Чужой запрос 2", "Чужой запрос 1",
+                        "Чужой запрос 0");
+    }
+
+    @Test
+    void itemAnswersExistingRequestOnly() {
+        User requestor = createUser();
+        User owner = createUser();
+        Long requestId = itemRequestService.addRequest(requestor.getId(), request("Нужен рубанок")).getId();
+
+        Long itemId = itemService.addItem(owner.getId(),
+                new ItemRequestDto("Рубанок", "Электрический", true, requestId)).getId();
+
+        ItemRequestResponseDto found = itemRequestService.getRequest(owner.getId(), requestId);
+        assertThat(found.getRequestorId()).isEqualTo(requestor.getId());
+        assertThat(found.getItems()).singleElement().satisfies(answer -> {
+            assertThat(answer.getId()).isEqualTo(itemId);
+            assertThat(answer.getOwnerId()).isEqualTo(owner.getId());
+        });
+        assertThatThrownBy(() -> itemService.addItem(owner.getId(),
+                new ItemRequestDto("Рубанок", "Ручной", true, requestId + 1_000)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private User createRequestorWithAnsweredRequests(int count) {
+        User requestor = createUser();
+        for (int i = 0; i < count; i++) {
+            String description = "вещь " + i + " " + UUID.randomUUID();
+            Long requestId = itemRequestService.addRequest(requestor.getId(), request(description)).getId();
+            itemService.addItem(createUser().getId(),
+                    new ItemRequestDto("Ответ на " + description, "Описание", true, requestId));
+            itemService.addItem(createUser().getId(),
+                    new ItemRequestDto("Ещё ответ на " + description, "Описание", true, requestId));
+        }
+        return requestor;
+    }
+
+    private ru.practicum.shareit.request.dto.ItemRequestDto request(String description) {
+        return new ru.practicum.shareit.request.dto.ItemRequestDto(description);
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+}
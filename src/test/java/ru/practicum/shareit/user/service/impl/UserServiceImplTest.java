@@ -0,0 +1,83 @@
+package ru.practicum.shareit.user.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AutoConfigureObservability
+class UserServiceImplTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromSecondLevelCache() {
+        Long userId = userService.addUser(request("Арендатор")).getId();
+        sessionFactory.getCache().evictEntityData(User.class, userId);
+        userService.getUserById(userId);
+
+        statistics.clear();
+        assertThat(userService.getUserById(userId).getName()).isEqualTo("Арендатор");
+        assertThat(userRepository.existsById(userId)).isTrue();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(CacheConfig.USERS_REGION).getHitCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.USERS_REGION)
+                .tag("result", "hit").functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void updateAndDeleteAreVisibleThroughCache() {
+        Long userId = userService.addUser(request("Владелец")).getId();
+        userService.getUserById(userId);
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setName("Новый владелец");
+        userService.updateUser(userId, update);
+        assertThat(userService.getUserById(userId).getName()).isEqualTo("Новый владелец");
+
+        userService.deleteUser(userId);
+        assertThat(userRepository.existsById(userId)).isFalse();
+        assertThatThrownBy(() -> userService.getUserById(userId)).isInstanceOf(NotFoundException.class);
+    }
+
+    private UserRequestDto request(String name) {
+        UserRequestDto request = new UserRequestDto();
+        request.setName(name);
+        request.setEmail(UUID.randomUUID() + "@mail.ru");
+        return request;
+    }
+}